@@ -0,0 +1,37 @@
+package org.example.AOP;
+
+import jakarta.annotation.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 为bean的方法提供通知。
+ *
+ * 容器中的所有Advisor（包括各个AnnotationProxyBeanPostProcessor）由{@link AdvisorRegistry}按@Order排序，
+ * 由容器的{@link AdvisorProxyBeanPostProcessor}为同一个bean只生成一个代理，每个方法的通知按顺序组成调用链，排在前面的在外层。
+ */
+public interface Advisor {
+
+    /**
+     * 拦截方法的InvocationHandler，handler收到的第一个参数是被代理的bean，可以修改参数和返回值
+     * @param method 目标类型的public方法
+     * @param targetClass 被代理的bean的类型
+     * @return 不拦截时返回null
+     */
+    @Nullable
+    default InvocationHandler getHandler(Method method, Class<?> targetClass) {
+        return null;
+    }
+
+    /**
+     * 在方法调用前后执行的拦截器，不装箱参数，也不反射调用
+     * @param method 目标类型的public方法
+     * @param targetClass 被代理的bean的类型
+     * @return 不拦截时返回null
+     */
+    @Nullable
+    default MethodInterceptor getInterceptor(Method method, Class<?> targetClass) {
+        return null;
+    }
+}
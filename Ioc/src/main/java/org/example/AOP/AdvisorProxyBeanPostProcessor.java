@@ -0,0 +1,40 @@
+package org.example.AOP;
+
+import org.example.context.BeanPostProcessor;
+
+/**
+ * 容器自己的BeanPostProcessor，用{@link AdvisorRegistry}把容器中所有Advisor的通知合并到一个代理中。
+ *
+ * 容器中有Advisor时由容器创建，排在所有BeanPostProcessor之后，不需要注册为bean。
+ * 注入和init方法使用原始bean，原始bean按代理实例保存。
+ */
+public class AdvisorProxyBeanPostProcessor implements BeanPostProcessor {
+
+    final AdvisorRegistry advisorRegistry;
+
+    // 代理到原始bean，按代理实例区分同一名称的多个非单例实例:
+    final ProxyTargets originBeans = new ProxyTargets();
+
+    public AdvisorProxyBeanPostProcessor(AdvisorRegistry advisorRegistry) {
+        this.advisorRegistry = advisorRegistry;
+    }
+
+    public AdvisorRegistry getAdvisorRegistry() {
+        return this.advisorRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        Object proxy = this.advisorRegistry.createProxy(bean);
+        if (proxy != bean) {
+            this.originBeans.put(proxy, bean);
+        }
+        return proxy;
+    }
+
+    @Override
+    public Object postProcessOnSetProperty(Object bean, String beanName) {
+        Object origin = this.originBeans.get(bean);
+        return origin != null ? origin : bean;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.AOP;
+
+import org.example.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 收集一个bean的所有Advisor提供的通知，只生成一个代理。
+ *
+ * 每个方法的通知在创建代理时确定：所有MethodInterceptor按顺序内联在代理类的同一个方法中，
+ * 调用深度不随拦截器个数增加；同一个方法有多个InvocationHandler时，由{@link HandlerChain}组成一条调用链，
+ * 外层handler收到的bean是每个bean共用的一个转发对象，调用它时执行下一个handler，不再为每个handler嵌套一层代理。
+ * MethodInterceptor总是在InvocationHandler的外层执行。
+ */
+public class AdvisorRegistry {
+
+    final List<Advisor> advisors;
+
+    final ProxyResolver proxyResolver;
+
+    public AdvisorRegistry(List<? extends Advisor> advisors) {
+        this(advisors, ProxyResolver.getInstance());
+    }
+
+    AdvisorRegistry(List<? extends Advisor> advisors, ProxyResolver proxyResolver) {
+        this.advisors = List.copyOf(advisors);
+        this.proxyResolver = proxyResolver;
+    }
+
+    /**
+     * 容器中所有Advisor类型的bean，按@Order和bean名称排序
+     * @param applicationContext
+     * @return
+     */
+    public static AdvisorRegistry of(ConfigurableApplicationContext applicationContext) {
+        List<Advisor> advisors = applicationContext.findBeanDefinitions(Advisor.class).stream().sorted().map(def -> {
+            Object instance = def.getInstance();
+            if (instance == null) {
+                instance = applicationContext.createBeanAsEarlySingleton(def);
+            }
+            return (Advisor) instance;
+        }).toList();
+        return new AdvisorRegistry(advisors);
+    }
+
+    public List<Advisor> getAdvisors() {
+        return this.advisors;
+    }
+
+    /**
+     * 用所有Advisor的通知创建bean的代理，没有任何通知时返回bean本身
+     * @param bean
+     * @return
+     */
+    public Object createProxy(Object bean) {
+        Class<?> beanClass = bean.getClass();
+        Method[] methods = this.proxyResolver.getProxyMethods(beanClass);
+        MethodInterceptor[][] interceptors = new MethodInterceptor[methods.length][];
+        InvocationHandler[] handlers = new InvocationHandler[methods.length];
+        boolean advised = false;
+        HandlerChain beanChain = null;
+        for (int i = 0; i < methods.length; i++) {
+            List<MethodInterceptor> chain = new ArrayList<>();
+            List<InvocationHandler> handlerChain = new ArrayList<>();
+            for (Advisor advisor : this.advisors) {
+                MethodInterceptor interceptor = advisor.getInterceptor(methods[i], beanClass);
+                if (interceptor != null) {
+                    chain.add(interceptor);
+                }
+                InvocationHandler handler = advisor.getHandler(methods[i], beanClass);
+                if (handler != null) {
+                    handlerChain.add(handler);
+                }
+            }
+            if (!chain.isEmpty()) {
+                interceptors[i] = chain.toArray(new MethodInterceptor[0]);
+                advised = true;
+            }
+            if (handlerChain.size() == 1) {
+                handlers[i] = handlerChain.get(0);
+                advised = true;
+            } else if (handlerChain.size() > 1) {
+                if (beanChain == null) {
+                    checkProxy(beanClass);
+                    beanChain = new HandlerChain(bean, this.proxyResolver);
+                }
+                handlers[i] = beanChain.link(handlerChain.toArray(new InvocationHandler[0]));
+                advised = true;
+            }
+        }
+        if (!advised) {
+            return bean;
+        }
+        checkProxy(beanClass);
+        return this.proxyResolver.createProxy(bean, interceptors, handlers);
+    }
+
+    static void checkProxy(Class<?> beanClass) {
+        if (!ProxyResolver.canProxy(beanClass)) {
+            throw new RuntimeException(String.format("Cannot create proxy of %s: class must be public, non-final and have a no-arg constructor.",
+                    beanClass.getName()));
+        }
+    }
+}
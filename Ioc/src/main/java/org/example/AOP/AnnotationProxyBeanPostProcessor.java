@@ -1,7 +1,6 @@
 package org.example.AOP;
 
-import org.example.annotation.Autowired;
-import org.example.context.ApplicationContext;
+import org.example.context.ApplicationContextUtils;
 import org.example.context.BeanDefinition;
 import org.example.context.BeanPostProcessor;
 import org.example.context.ConfigurableApplicationContext;
@@ -9,56 +8,102 @@ import org.example.context.ConfigurableApplicationContext;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @Author pw7563
  * @Date 2024/6/26 10:43
  * usage
+ *
+ * 按注解拦截方法的Advisor，标注了注解的方法交给注解value()指定名称的InvocationHandler bean。
+ * 本身不创建代理，和容器中的其他Advisor一起由{@link AdvisorProxyBeanPostProcessor}合并到同一个代理中。
+ *
+ * 仍然是BeanPostProcessor，默认不处理bean；子类覆写的postProcessBeforeInitialization()等方法照常调用，
+ * 收到的是原始bean，合并后的代理在所有BeanPostProcessor之后创建。
  */
-public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor {
-
-    Map<String, Object> originBeans = new HashMap<>();
+public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor, Advisor {
 
     Class<A> annotationClass;
 
-    @Autowired
-    private ApplicationContext applicationContext;
+    // 按名称缓存的handler bean:
+    final Map<String, InvocationHandler> handlers = new ConcurrentHashMap<>();
 
-    @Autowired
-    private ConfigurableApplicationContext configurableApplicationContext;
+    volatile Pointcut pointcut;
 
     public AnnotationProxyBeanPostProcessor(){
         this.annotationClass = getParameterizedType();
     }
 
-    public Object postProcessBeforeInitalization(Object bean, String beanName){
-        Class<?> beanClass = bean.getClass();
-
-        A anno = beanClass.getAnnotation(annotationClass);
-        if(anno != null){
-            String handlerName;
-            try{
-                handlerName = (String) anno.annotationType().getMethod("value").invoke(anno);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (NoSuchMethodException e) {
-                throw new RuntimeException(e);
-            }
-            Object proxy = createProxy(beanClass, bean, handlerName);
-            originBeans.put(beanName, bean);
-            return proxy;
-        }else{
-            return bean;
+    /**
+     * 需要拦截的方法，默认为标注了注解的方法，以及标注了注解的类中除toString()、hashCode()等Object方法以外的public方法。
+     * 子类可以覆写来缩小或改变范围，如Pointcut.annotatedWith(Around.class).and(Pointcut.named("get*").negate())。
+     * 方法匹配后使用方法上注解指定的handler，方法上没有注解时使用类上注解指定的handler，都没有时不拦截
+     * @return
+     */
+    protected Pointcut getPointcut(){
+        return Pointcut.annotatedWith(this.annotationClass);
+    }
+
+    /**
+     * 匹配切入点的方法交给注解的value()指定名称的InvocationHandler bean
+     * @param method 目标类型的public方法
+     * @param targetClass 被代理的bean的类型
+     * @return
+     */
+    @Override
+    public InvocationHandler getHandler(Method method, Class<?> targetClass){
+        A anno = findAnnotation(method, targetClass);
+        if (anno == null) {
+            return null;
+        }
+        String handlerName = getHandlerName(anno);
+        InvocationHandler handler = this.handlers.get(handlerName);
+        if (handler == null) {
+            // 创建handler bean时也会经过Advisor，不能在computeIfAbsent()中查找:
+            handler = lookupHandler(handlerName);
+            this.handlers.put(handlerName, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * 方法匹配切入点时，返回方法上的注解，方法上没有时返回类上的注解
+     * @param method
+     * @param targetClass
+     * @return 不匹配或者都没有注解时返回null
+     */
+    protected A findAnnotation(Method method, Class<?> targetClass){
+        Pointcut pointcut = this.pointcut;
+        if (pointcut == null) {
+            pointcut = getPointcut();
+            this.pointcut = pointcut;
+        }
+        if (!pointcut.matches(method, targetClass)) {
+            return null;
+        }
+        A anno = method.getAnnotation(annotationClass);
+        return anno != null ? anno : targetClass.getAnnotation(annotationClass);
+    }
+
+    String getHandlerName(A anno){
+        try{
+            return (String) anno.annotationType().getMethod("value").invoke(anno);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
         }
     }
 
-    Object createProxy(Class<?> beanClass, Object bean, String handlerName){
+    InvocationHandler lookupHandler(String handlerName){
+        // BeanPostProcessor不能注入其他Bean，从当前正在创建的容器查找handler:
+        ConfigurableApplicationContext configurableApplicationContext = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
         BeanDefinition def = configurableApplicationContext.findBeanDefinition(handlerName);
 
         if(def == null){
@@ -70,7 +115,7 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
             handlerBean = configurableApplicationContext.createBeanAsEarlySingleton(def);
         }
         if(handlerBean instanceof InvocationHandler handler){
-            return ProxyResolver.getInstance().createProxy(handlerBean,handler);
+            return handler;
         }else{
             throw new RuntimeException("Handler is not type of InvocationHandler");
         }
@@ -78,12 +123,6 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
     }
 
 
-    @Override
-    public Object postProcessOnSetProperty(Object bean, String beanName) {
-        Object origin = this.originBeans.get(beanName);
-        return origin != null ? origin : bean;
-    }
-
     private Class<A> getParameterizedType(){
         Type type = getClass().getGenericSuperclass();
         if (!(type instanceof ParameterizedType)){
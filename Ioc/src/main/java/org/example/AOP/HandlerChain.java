@@ -0,0 +1,73 @@
+package org.example.AOP;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * 把一个bean上同一个方法的多个InvocationHandler组成一条调用链，排在前面的在外层，最内层的handler收到原始bean。
+ *
+ * 外层handler收到的bean是这个bean所有方法共用的一个转发对象，handler调用它的同一个方法时执行链中的下一个handler，
+ * 调用其他方法时直接调用原始bean。当前线程执行到链的哪一层保存在线程的栈中，
+ * 因此handler需要在当前线程中继续调用，在其他线程中调用转发对象会直接调用原始bean。
+ */
+final class HandlerChain {
+
+    /**
+     * 当前线程中正在执行的handler调用转发对象时，应该执行的下一个handler
+     */
+    record Frame(HandlerChain chain, Method method, InvocationHandler[] handlers, int position) {
+    }
+
+    static final ThreadLocal<ArrayDeque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    final Object bean;
+
+    // 外层handler收到的转发对象:
+    final Object next;
+
+    HandlerChain(Object bean, ProxyResolver proxyResolver) {
+        this.bean = bean;
+        this.next = proxyResolver.createProxy(bean.getClass(), this::proceed);
+    }
+
+    /**
+     * 返回从最外层handler开始执行的handler
+     * @param handlers 同一个方法的handler，排在前面的在外层
+     * @return
+     */
+    InvocationHandler link(InvocationHandler[] handlers) {
+        return (bean, method, args) -> invoke(method, handlers, 0, args);
+    }
+
+    Object invoke(Method method, InvocationHandler[] handlers, int position, Object[] args) throws Throwable {
+        if (position == handlers.length - 1) {
+            return handlers[position].invoke(this.bean, method, args);
+        }
+        ArrayDeque<Frame> frames = FRAMES.get();
+        frames.push(new Frame(this, method, handlers, position + 1));
+        try {
+            return handlers[position].invoke(this.next, method, args);
+        } finally {
+            frames.pop();
+        }
+    }
+
+    Object proceed(Object proxy, Method method, Object[] args) throws Throwable {
+        Frame frame = FRAMES.get().peek();
+        if (frame != null && frame.chain == this && sameSignature(frame.method, method)) {
+            return invoke(method, frame.handlers, frame.position, args);
+        }
+        try {
+            return method.invoke(this.bean, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    static boolean sameSignature(Method a, Method b) {
+        return a.getName().equals(b.getName()) && Arrays.equals(a.getParameterTypes(), b.getParameterTypes());
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.AOP;
+
+import java.lang.reflect.Method;
+
+/**
+ * 直接调用方式的拦截器，由{@link ProxyResolver#createProxy(Object, java.util.function.Function)}创建的代理使用。
+ *
+ * 和InvocationHandler不同，代理直接调用目标方法，拦截器只在调用前后收到通知，拿不到参数和返回值，
+ * 因此调用过程不需要分配参数数组、装箱基本类型或反射调用目标方法，适合计时、计数、事务等不关心参数的切面。
+ * before返回的long原样传给after，可以用来传递开始时间等上下文。
+ */
+public interface MethodInterceptor {
+
+    /**
+     * 调用目标方法之前执行，抛出异常时不再调用目标方法和after
+     * @param target 被代理的原始bean
+     * @param method 被调用的方法
+     * @return 传给after的上下文
+     */
+    default long before(Object target, Method method) {
+        return 0;
+    }
+
+    /**
+     * 目标方法返回或抛出异常后执行，目标方法的异常在after之后继续抛出
+     * @param target 被代理的原始bean
+     * @param method 被调用的方法
+     * @param context before的返回值
+     * @param error 目标方法抛出的异常，正常返回时为null
+     */
+    default void after(Object target, Method method, long context, Throwable error) {
+    }
+}
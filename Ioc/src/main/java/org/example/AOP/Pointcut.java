@@ -0,0 +1,76 @@
+package org.example.AOP;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * 切入点：判断目标类型的某个方法是否需要拦截。
+ *
+ * 创建代理时对每个方法只匹配一次，结果保存在按方法编号排列的数组中，调用时不再匹配，
+ * 因此切入点可以使用反射等较慢的判断。
+ */
+@FunctionalInterface
+public interface Pointcut {
+
+    /**
+     * @param method 目标类型的public方法
+     * @param targetClass 被代理的bean的类型
+     * @return 是否拦截
+     */
+    boolean matches(Method method, Class<?> targetClass);
+
+    default Pointcut and(Pointcut other) {
+        return (method, targetClass) -> matches(method, targetClass) && other.matches(method, targetClass);
+    }
+
+    default Pointcut or(Pointcut other) {
+        return (method, targetClass) -> matches(method, targetClass) || other.matches(method, targetClass);
+    }
+
+    default Pointcut negate() {
+        return (method, targetClass) -> !matches(method, targetClass);
+    }
+
+    /**
+     * 方法上有指定注解，或者bean的类型上有指定注解且方法不是Object定义的方法（toString()、hashCode()等）
+     * @param annotationClass
+     * @return
+     */
+    static Pointcut annotatedWith(Class<? extends Annotation> annotationClass) {
+        return (method, targetClass) -> method.isAnnotationPresent(annotationClass)
+                || (targetClass.isAnnotationPresent(annotationClass) && method.getDeclaringClass() != Object.class);
+    }
+
+    /**
+     * 方法名匹配pattern，pattern中的*匹配任意个字符，如"get*"、"*Async"
+     * @param pattern
+     * @return
+     */
+    static Pointcut named(String pattern) {
+        Pattern regex = Pattern.compile(Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).reduce((a, b) -> a + ".*" + b).orElse(""));
+        return (method, targetClass) -> regex.matcher(method.getName()).matches();
+    }
+
+    /**
+     * 方法的参数依次可以赋值给指定类型，参数个数必须相同
+     * @param parameterTypes
+     * @return
+     */
+    static Pointcut parameterTypes(Class<?>... parameterTypes) {
+        Class<?>[] expected = parameterTypes.clone();
+        return (method, targetClass) -> {
+            Class<?>[] actual = method.getParameterTypes();
+            if (actual.length != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < actual.length; i++) {
+                if (!expected[i].isAssignableFrom(actual[i])) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
@@ -1,30 +1,133 @@
 package org.example.AOP;
 
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Ownership;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.Implementation;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatchers;
+import sun.reflect.ReflectionFactory;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * @Author pw7563
  * @Date 2024/6/21 15:06
  * usage
+ *
+ * 生成的代理类按(目标类型, 拦截方式)缓存，handler通过构造方法参数保存到代理实例的字段中，
+ * 同一类型的代理只在第一次创建时生成和加载类，之后每次创建代理只需要分配一个实例。
+ *
+ * 支持两种拦截方式：
+ * 1. InvocationHandler：所有public方法都通过InvocationHandlerAdapter转给handler，参数装箱为Object[]，handler一般再反射调用目标方法；
+ * 2. 直接调用：代理类的每个方法直接调用目标bean的同名方法，只有需要拦截的方法在调用前后内联了{@link MethodInterceptor}的通知，
+ *    没有参数数组、装箱和反射调用；指定了InvocationHandler的方法由这个方法自己的handler处理。
+ *    拦截器和handler按方法编号（{@link #getProxyMethods(Class)}的下标）保存在数组中，创建代理时确定，调用时不再匹配。
  */
 public class ProxyResolver {
 
+    // 保存handler的字段名:
+    static final String HANDLER_FIELD = "summer$handler";
+
+    // 直接调用方式的代理保存目标bean、按方法编号排列的拦截器和方法的字段名:
+    static final String TARGET_FIELD = "summer$target";
+
+    static final String INTERCEPTORS_FIELD = "summer$interceptors";
+
+    static final String HANDLERS_FIELD = "summer$handlers";
+
+    static final String METHODS_FIELD = "summer$methods";
+
+    // 代理类中有InvocationHandler的方法调用的静态方法:
+    static final Method DISPATCH_METHOD;
+
+    static {
+        try {
+            DISPATCH_METHOD = ProxyResolver.class.getMethod("dispatch", InvocationHandler[].class, Method[].class, int.class, Object.class, Object[].class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 代理类的拦截方式，不同拦截方式生成的代理类分别缓存
+     */
+    enum Strategy {
+        // 所有public方法交给InvocationHandler处理:
+        INVOCATION_HANDLER,
+        // 直接调用目标bean，部分方法内联MethodInterceptor或交给各自的InvocationHandler:
+        DIRECT
+    }
+
+    /**
+     * 代理类的缓存key，直接调用方式下拦截的方法不同，生成的代理类也不同
+     * @param strategy
+     * @param chainLengths 直接调用方式下每个方法的MethodInterceptor个数，按方法编号排列
+     * @param handled 直接调用方式下有InvocationHandler的方法编号
+     */
+    record ProxyShape(Strategy strategy, List<Integer> chainLengths, BitSet handled) {
+    }
+
+    static final ProxyShape INVOCATION_HANDLER_SHAPE = new ProxyShape(Strategy.INVOCATION_HANDLER, null, null);
+
+    /**
+     * 一个目标类型的全部代理类
+     */
+    static class ProxyClasses {
+
+        // 可以被代理类覆写的public方法，数组下标就是方法编号:
+        final Method[] methods;
+
+        // 每种拦截方式的代理类的构造方法:
+        final Map<ProxyShape, MethodHandle> constructors = new ConcurrentHashMap<>();
+
+        ProxyClasses(Class<?> type) {
+            this.methods = Arrays.stream(type.getMethods())
+                    .filter(m -> !Modifier.isStatic(m.getModifiers()) && !Modifier.isFinal(m.getModifiers()) && !m.isBridge())
+                    .sorted(Comparator.comparing(Method::toGenericString))
+                    .toArray(Method[]::new);
+        }
+    }
+
+    private static final ProxyResolver INSTANCE = new ProxyResolver();
+
     // 创建ByteBuddy实例
     ByteBuddy byteBuddy = new ByteBuddy();
 
-
-    private static ProxyResolver INSTANCE = null;
+    // 每个目标类型已生成的代理类，缓存在ClassValue中，目标类型被卸载时一起回收:
+    final ClassValue<ProxyClasses> proxyClasses = new ClassValue<>() {
+        @Override
+        protected ProxyClasses computeValue(Class<?> type) {
+            return new ProxyClasses(type);
+        }
+    };
 
     public static ProxyResolver getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ProxyResolver();
-        }
         return INSTANCE;
     }
 
@@ -40,34 +143,298 @@ public class ProxyResolver {
     public <T> T createProxy(T bean, InvocationHandler handler){
         // 目标Bean的Class类型
         Class<?> targetClass = bean.getClass();
+        return (T) createProxy(targetClass, (proxy, method, args) -> {
+            return handler.invoke(bean, method, args);
+        });
+    }
+
+    /**
+     * 创建指定类型的代理，所有public方法都交给handler处理，handler收到的第一个参数是代理本身
+     * 类型必须是接口或者有无参构造方法的非final类，创建代理时不会调用这个构造方法
+     * @param targetClass
+     * @param handler
+     * @return
+     * @param <T>
+     */
+    public <T> T createProxy(Class<T> targetClass, InvocationHandler handler){
+        MethodHandle constructor = this.proxyClasses.get(targetClass).constructors
+                .computeIfAbsent(INVOCATION_HANDLER_SHAPE, s -> createProxyClass(targetClass));
+        try {
+            return (T) constructor.invokeExact(handler);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 生成并加载代理类，返回类型为(InvocationHandler)Object的MethodHandle。
+     * 代理类的所有public方法都交给handler，父类的状态不会被用到，所以创建代理实例时不调用目标类型的构造方法，
+     * 避免构造方法的副作用（例如延迟bean的代理在启动时就执行了目标bean的构造方法）
+     * @param targetClass
+     * @return
+     */
+    MethodHandle createProxyClass(Class<?> targetClass){
         // 动态创建Proxy类
-        Class<?> proxyClas = this.byteBuddy
-                // 子类用默认无参数构造方法
-                .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
+        Class<?> proxyClass = this.byteBuddy
+                // 不复制父类的构造方法
+                .subclass(targetClass, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE)
                 // 拦截所有public方法
                 .method(ElementMatchers.isPublic())
-                // 新的拦截器实例
-                .intercept(InvocationHandlerAdapter.of((proxy, method, args) -> {
-                    return handler.invoke(bean, method, args);
-                }))
+                // 调用当前实例handler字段保存的拦截器
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
                 .make()
                 .load(targetClass.getClassLoader())
                 .getLoaded();
+        try {
+            // 只调用Object的构造方法分配实例，和反序列化创建对象的方式相同:
+            Constructor<?> allocator = ReflectionFactory.getReflectionFactory()
+                    .newConstructorForSerialization(proxyClass, Object.class.getDeclaredConstructor());
+            Field field = proxyClass.getDeclaredField(HANDLER_FIELD);
+            field.setAccessible(true);
+            MethodHandle handlerSetter = MethodHandles.lookup().unreflectSetter(field);
+            MethodHandle allocate = MethodHandles.lookup().findStatic(ProxyResolver.class, "allocate",
+                    MethodType.methodType(Object.class, Constructor.class, MethodHandle.class, InvocationHandler.class));
+            return MethodHandles.insertArguments(allocate, 0, allocator, handlerSetter);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static Object allocate(Constructor<?> allocator, MethodHandle handlerSetter, InvocationHandler handler) throws Throwable {
+        Object proxy = allocator.newInstance();
+        handlerSetter.invoke(proxy, handler);
+        return proxy;
+    }
 
-        Object proxy;
+    /**
+     * 直接调用方式的代理可以拦截的方法，即类型的所有public、非static、非final方法，数组下标就是方法编号
+     * @param targetClass
+     * @return
+     */
+    public Method[] getProxyMethods(Class<?> targetClass){
+        return this.proxyClasses.get(targetClass).methods.clone();
+    }
 
-        try{
-            proxy = proxyClas.getConstructor().newInstance();
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (InstantiationException e) {
+    /**
+     * 创建直接调用目标bean的代理：advisor对bean的每个public方法调用一次，返回这个方法的拦截器，不需要拦截时返回null。
+     * 不拦截的方法直接调用bean的方法；拦截的方法在调用前后执行拦截器，不装箱参数，也不反射调用。
+     * 没有任何方法需要拦截时直接返回bean。
+     * @param bean
+     * @param advisor
+     * @return
+     * @param <T>
+     */
+    public <T> T createProxy(T bean, Function<Method, MethodInterceptor> advisor){
+        Method[] methods = this.proxyClasses.get(bean.getClass()).methods;
+        MethodInterceptor[][] interceptors = new MethodInterceptor[methods.length][];
+        for (int i = 0; i < methods.length; i++) {
+            MethodInterceptor interceptor = advisor.apply(methods[i]);
+            if (interceptor != null) {
+                interceptors[i] = new MethodInterceptor[] { interceptor };
+            }
+        }
+        return createProxy(bean, interceptors, null);
+    }
+
+    /**
+     * 创建直接调用目标bean的代理，interceptors和handlers按{@link #getProxyMethods(Class)}的方法编号排列，可以为null：
+     * 两者都为null的方法直接调用bean的方法；有handler的方法交给handler处理，handler收到的第一个参数是bean；
+     * 有拦截器的方法在调用bean的方法或handler前后依次执行这个方法的全部拦截器，第一个拦截器在最外层。
+     * 所有拦截器都内联在代理类的同一个方法中，调用深度和拦截器个数无关。没有任何方法需要拦截时直接返回bean。
+     * @param bean
+     * @param interceptors 每个方法的拦截器链
+     * @param handlers
+     * @return
+     * @param <T>
+     */
+    public <T> T createProxy(T bean, MethodInterceptor[][] interceptors, InvocationHandler[] handlers){
+        Class<?> targetClass = bean.getClass();
+        ProxyClasses classes = this.proxyClasses.get(targetClass);
+        Method[] methods = classes.methods;
+        checkLength(interceptors, methods.length);
+        checkLength(handlers, methods.length);
+        // 拦截器链依次展开保存到一个数组:
+        Integer[] chainLengths = new Integer[methods.length];
+        List<MethodInterceptor> flattened = new ArrayList<>();
+        BitSet handled = new BitSet(methods.length);
+        for (int i = 0; i < methods.length; i++) {
+            MethodInterceptor[] chain = interceptors == null || interceptors[i] == null ? new MethodInterceptor[0] : interceptors[i];
+            chainLengths[i] = chain.length;
+            for (MethodInterceptor interceptor : chain) {
+                flattened.add(Objects.requireNonNull(interceptor, "interceptor is null"));
+            }
+            if (handlers != null && handlers[i] != null) {
+                handled.set(i);
+            }
+        }
+        if (flattened.isEmpty() && handled.isEmpty()) {
+            return bean;
+        }
+        MethodHandle constructor = classes.constructors.computeIfAbsent(new ProxyShape(Strategy.DIRECT, List.of(chainLengths), handled),
+                s -> createDirectProxyClass(targetClass, methods, s.chainLengths(), s.handled()));
+        try {
+            return (T) constructor.invokeExact(bean, flattened.toArray(new MethodInterceptor[0]), handlers);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
+        }
+    }
+
+    static void checkLength(Object[] advices, int length){
+        if (advices != null && advices.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " advices indexed by proxy methods but got " + advices.length);
+        }
+    }
+
+    /**
+     * 生成直接调用方式的代理类，返回类型为(Object, MethodInterceptor[], InvocationHandler[])Object的构造方法，
+     * 其中MethodInterceptor[]是依次展开的全部拦截器链
+     * @param targetClass
+     * @param methods
+     * @param chainLengths
+     * @param handled
+     * @return
+     */
+    MethodHandle createDirectProxyClass(Class<?> targetClass, Method[] methods, List<Integer> chainLengths, BitSet handled){
+        // 调用目标bean的同名方法:
+        MethodCall callTarget = MethodCall.invokeSelf().onField(TARGET_FIELD).withAllArguments();
+        DynamicType.Builder<?> builder = this.byteBuddy
+                .subclass(targetClass, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .defineField(TARGET_FIELD, targetClass, Visibility.PRIVATE, FieldManifestation.FINAL)
+                .defineField(INTERCEPTORS_FIELD, MethodInterceptor[].class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                .defineField(HANDLERS_FIELD, InvocationHandler[].class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                .defineField(METHODS_FIELD, Method[].class, Visibility.PRIVATE, Ownership.STATIC)
+                .defineConstructor(Visibility.PUBLIC)
+                .withParameters(targetClass, MethodInterceptor[].class, InvocationHandler[].class)
+                .intercept(superConstructor(targetClass)
+                        .andThen(FieldAccessor.ofField(TARGET_FIELD).setsArgumentAt(0))
+                        .andThen(FieldAccessor.ofField(INTERCEPTORS_FIELD).setsArgumentAt(1))
+                        .andThen(FieldAccessor.ofField(HANDLERS_FIELD).setsArgumentAt(2)))
+                .method(ElementMatchers.isPublic())
+                .intercept(callTarget);
+        int offset = 0;
+        for (int i = 0; i < methods.length; i++) {
+            int length = chainLengths.get(i);
+            if (length == 0 && !handled.get(i)) {
+                continue;
+            }
+            Method m = methods[i];
+            Implementation impl = callTarget;
+            if (handled.get(i)) {
+                // 参数装箱为数组，和方法编号一起传给dispatch():
+                impl = MethodCall.invoke(DISPATCH_METHOD)
+                        .withField(HANDLERS_FIELD, METHODS_FIELD).with(i).withField(TARGET_FIELD).withArgumentArray()
+                        .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC);
+            }
+            // 从内到外在调用前后内联DirectAdvice，方法编号和拦截器在数组中的位置作为常量写入字节码:
+            for (int k = length - 1; k >= 0; k--) {
+                impl = Advice.withCustomMapping()
+                        .bind(DirectAdvice.Index.class, i)
+                        .bind(DirectAdvice.Slot.class, offset + k)
+                        .to(DirectAdvice.class).wrap(impl);
+            }
+            offset += length;
+            builder = builder.method(ElementMatchers.named(m.getName()).and(ElementMatchers.takesArguments(m.getParameterTypes())))
+                    .intercept(impl);
+        }
+        Class<?> proxyClass = builder.make().load(targetClass.getClassLoader()).getLoaded();
+        try {
+            Field field = proxyClass.getDeclaredField(METHODS_FIELD);
+            field.setAccessible(true);
+            field.set(null, methods);
+            return MethodHandles.publicLookup()
+                    .findConstructor(proxyClass, MethodType.methodType(void.class, targetClass, MethodInterceptor[].class, InvocationHandler[].class))
+                    .asType(MethodType.methodType(Object.class, Object.class, MethodInterceptor[].class, InvocationHandler[].class));
+        } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 由直接调用方式的代理类调用，把方法调用交给这个方法自己的handler，应用代码不应直接调用
+     * @param handlers
+     * @param methods
+     * @param index
+     * @param target
+     * @param args
+     * @return
+     * @throws Throwable
+     */
+    public static Object dispatch(InvocationHandler[] handlers, Method[] methods, int index, Object target, Object[] args) throws Throwable {
+        return handlers[index].invoke(target, methods[index], args);
+    }
+
+    static MethodCall superConstructor(Class<?> targetClass){
+        try {
+            return MethodCall.invoke((targetClass.isInterface() ? Object.class : targetClass).getDeclaredConstructor());
         } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
+            throw new RuntimeException("Cannot create proxy of " + targetClass.getName() + ": no-arg constructor not found.", e);
+        }
+    }
+
+    /**
+     * 内联到直接调用方式代理类中的通知，通过字段取得拦截器、目标bean和方法
+     */
+    static class DirectAdvice {
+
+        /**
+         * 被拦截的方法编号
+         */
+        @Retention(RetentionPolicy.RUNTIME)
+        @interface Index {
+        }
+
+        /**
+         * 拦截器在展开后的数组中的位置
+         */
+        @Retention(RetentionPolicy.RUNTIME)
+        @interface Slot {
+        }
+
+        @Advice.OnMethodEnter
+        static long enter(@Index int index,
+                          @Slot int slot,
+                          @Advice.FieldValue(TARGET_FIELD) Object target,
+                          @Advice.FieldValue(INTERCEPTORS_FIELD) MethodInterceptor[] interceptors,
+                          @Advice.FieldValue(METHODS_FIELD) Method[] methods) {
+            return interceptors[slot].before(target, methods[index]);
+        }
+
+        @Advice.OnMethodExit(onThrowable = Throwable.class)
+        static void exit(@Index int index,
+                         @Slot int slot,
+                         @Advice.FieldValue(TARGET_FIELD) Object target,
+                         @Advice.FieldValue(INTERCEPTORS_FIELD) MethodInterceptor[] interceptors,
+                         @Advice.FieldValue(METHODS_FIELD) Method[] methods,
+                         @Advice.Enter long context,
+                         @Advice.Thrown Throwable error) {
+            interceptors[slot].after(target, methods[index], context, error);
+        }
+    }
+
+    /**
+     * 是否可以用createProxy(Class, InvocationHandler)创建代理
+     * @param targetClass
+     * @return
+     */
+    public static boolean canProxy(Class<?> targetClass){
+        if (targetClass.isInterface()) {
+            return true;
+        }
+        int classMod = targetClass.getModifiers();
+        if (targetClass.isPrimitive() || targetClass.isArray() || Modifier.isFinal(classMod) || !Modifier.isPublic(classMod)) {
+            return false;
+        }
+        try {
+            int mod = targetClass.getDeclaredConstructor().getModifiers();
+            return Modifier.isPublic(mod) || Modifier.isProtected(mod);
+        } catch (NoSuchMethodException e) {
+            return false;
         }
-        return (T) proxy;
     }
 
 }
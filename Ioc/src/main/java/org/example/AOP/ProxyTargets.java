@@ -0,0 +1,69 @@
+package org.example.AOP;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按代理实例的identity保存代理对应的原始bean，代理被回收后对应的条目在下一次访问时清除。
+ *
+ * 同一个bean名称可能同时创建多个prototype或request作用域的实例，不能按名称保存；
+ * 代理会把equals()和hashCode()转给原始bean，也不能直接作为WeakHashMap的key。
+ */
+final class ProxyTargets {
+
+    final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    final Map<ProxyKey, Object> targets = new ConcurrentHashMap<>();
+
+    void put(Object proxy, Object target) {
+        expunge();
+        this.targets.put(new ProxyKey(proxy, this.queue), target);
+    }
+
+    Object get(Object proxy) {
+        expunge();
+        return this.targets.get(new ProxyKey(proxy, null));
+    }
+
+    int size() {
+        expunge();
+        return this.targets.size();
+    }
+
+    void expunge() {
+        Reference<?> ref;
+        while ((ref = this.queue.poll()) != null) {
+            this.targets.remove(ref);
+        }
+    }
+
+    static final class ProxyKey extends WeakReference<Object> {
+
+        final int hash;
+
+        ProxyKey(Object proxy, ReferenceQueue<Object> queue) {
+            super(proxy, queue);
+            this.hash = System.identityHashCode(proxy);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ProxyKey other) || other.hash != this.hash) {
+                return false;
+            }
+            Object proxy = get();
+            return proxy != null && proxy == other.get();
+        }
+    }
+}
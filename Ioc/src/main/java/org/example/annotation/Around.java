@@ -7,7 +7,7 @@ import java.lang.annotation.*;
  * @Date 2024/6/26 10:36
  * usage
  */
-@Target(ElementType.TYPE)
+@Target({ ElementType.TYPE, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 @Inherited
 @Documented
@@ -15,7 +15,7 @@ public @interface Around {
 
     /**
      * Invocation handler bean name
-     * 指定要注入的beanname
+     * 指定要注入的beanname，标注在方法上时只拦截这个方法，并覆盖类上指定的handler
      * @return
      */
     String value();
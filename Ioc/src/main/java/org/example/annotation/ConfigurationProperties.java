@@ -0,0 +1,21 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 组件不再通过构造方法创建，而是把prefix下的配置一次绑定到组件上：
+ * record通过规范构造方法绑定，其他类通过无参构造方法创建后用setter或字段绑定。
+ *
+ * 与@Refreshable一起使用时，非record的组件在配置重新加载后重新绑定。
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConfigurationProperties {
+
+    /**
+     * Property prefix, e.g. "summer.datasource".
+     */
+    String prefix();
+
+}
@@ -0,0 +1,15 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+
+    /**
+     * Create bean on first access. Set to false to create eagerly when summer.context.lazy-init is true.
+     */
+    boolean value() default true;
+
+}
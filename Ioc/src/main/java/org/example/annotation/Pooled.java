@@ -0,0 +1,18 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Recycle instances of a request scoped bean through a bounded pool instead of creating new ones per request.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Pooled {
+
+    /**
+     * Max idle instances kept in pool.
+     */
+    int max() default 16;
+
+}
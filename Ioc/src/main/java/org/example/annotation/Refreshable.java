@@ -0,0 +1,16 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 配置重新加载后，重新注入bean中@Value标注的字段和setter方法。
+ *
+ * 只对已创建的单例bean生效，构造方法参数不会重新注入；注入发生在监视配置文件的线程，
+ * 被读取的字段应声明为volatile，或改用Supplier类型的@Value。
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Refreshable {
+
+}
@@ -0,0 +1,23 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+
+    String SINGLETON = "singleton";
+
+    String PROTOTYPE = "prototype";
+
+    String REQUEST = "request";
+
+    String THREAD = "thread";
+
+    /**
+     * Scope name: singleton, prototype, request or thread.
+     */
+    String value() default SINGLETON;
+
+}
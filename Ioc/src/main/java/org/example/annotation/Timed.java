@@ -0,0 +1,21 @@
+package org.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 记录方法的调用次数、错误次数和耗时分布，由MetricsRegistry汇总。
+ * 标注在类上时对类中除Object方法以外的public方法都生效。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Timed {
+
+    /**
+     * 指标名称，标注在方法上时默认为"类名.方法名"，标注在类上时为"value.方法名"
+     * @return
+     */
+    String value() default "";
+
+}
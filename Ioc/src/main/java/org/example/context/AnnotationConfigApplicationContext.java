@@ -2,17 +2,37 @@ package org.example.context;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import org.example.AOP.AdvisorProxyBeanPostProcessor;
+import org.example.AOP.AdvisorRegistry;
+import org.example.AOP.ProxyResolver;
 import org.example.annotation.*;
+import org.example.index.ComponentIndex;
+import org.example.io.ClassMetadataReader;
+import org.example.io.Resource;
 import org.example.io.PropertyResolver;
 import org.example.io.ResourceResolver;
+import org.example.io.ScanSession;
 import org.example.utils.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -32,21 +52,127 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
     private Set<String> creatingBeanNames;
 
+    private final BeanTypeIndex typeIndex;
+
+    // 按类型查找到的唯一（或@Primary）BeanDefinition:
+    private final Map<Class<?>, BeanDefinition> primaryDefinitions = new ConcurrentHashMap<>();
+
+    private Executor executor;
+
+    // 没有@Lazy的bean是否延迟创建:
+    private final boolean lazyInit;
+
+    // 容器启动完成后，未初始化的bean在第一次获取时创建:
+    private volatile boolean started = false;
+
+    private final StartupRecorder startup = new StartupRecorder();
+
+    private volatile StartupReport startupReport;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile ShutdownReport shutdownReport;
+
+    private final ThreadScope threadScope = new ThreadScope();
+
+    // 正在创建的非单例bean，用于检测当前线程上的循环依赖:
+    private final ThreadLocal<Set<String>> creatingScopedBeanNames = ThreadLocal.withInitial(HashSet::new);
+
+    // 注入到其他bean中的请求作用域和线程作用域代理，按bean和注入类型缓存:
+    private final Map<BeanDefinition, Map<Class<?>, Object>> scopedProxies = new ConcurrentHashMap<>();
+
+    private final Consumer<Set<String>> refreshListener = this::refreshValues;
+
     public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
-        this.propertyResolver = propertyResolver;
+        this(configClass, propertyResolver, null);
+    }
 
-        final Set<String> beanClassNames = scanForClassNames(configClass);
+    /**
+     * 指定executor时，没有依赖关系的bean会在executor中并行创建和初始化；
+     * 未指定时，如果配置了summer.context.parallelism且大于1，则创建对应大小的线程池，启动完成后关闭
+     * @param configClass
+     * @param propertyResolver
+     * @param executor
+     */
+    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver, Executor executor) {
+        this.propertyResolver = propertyResolver;
+        Boolean lazyInit = propertyResolver.getProperty("summer.context.lazy-init", Boolean.class);
+        this.lazyInit = lazyInit != null && lazyInit;
+        Boolean jfr = propertyResolver.getProperty("summer.context.startup.jfr", Boolean.class);
+        this.startup.setJfr(jfr != null && jfr);
+
+        this.beans = loadBeanDefinitions(configClass);
+        attachGeneratedFactories(this.beans.values());
+        this.typeIndex = new BeanTypeIndex(this.beans.values());
+
+        this.creatingBeanNames = ConcurrentHashMap.newKeySet();
+
+        ExecutorService startupExecutor = null;
+        if (executor == null) {
+            Integer parallelism = propertyResolver.getProperty("summer.context.parallelism", Integer.class);
+            if (parallelism != null && parallelism > 1) {
+                startupExecutor = Executors.newFixedThreadPool(parallelism);
+                executor = startupExecutor;
+            }
+        }
+        this.executor = executor;
+        // BeanPostProcessor在创建bean的过程中需要通过ApplicationContextUtils查找其他bean:
+        ApplicationContextUtils.setApplicationContext(this);
+        try {
+            refresh();
+        } catch (RuntimeException | Error e) {
+            if (ApplicationContextUtils.getApplicationContext() == this) {
+                ApplicationContextUtils.setApplicationContext(null);
+            }
+            throw e;
+        } finally {
+            this.executor = null;
+            if (startupExecutor != null) {
+                startupExecutor.shutdown();
+            }
+        }
+        this.started = true;
+        propertyResolver.addChangeListener(this.refreshListener);
+        reportStartup();
+    }
 
-        this.beans = createBeanDefinitions(beanClassNames);
+    /**
+     * 生成启动耗时统计，配置了summer.context.startup.report时同时写入JSON文件
+     */
+    void reportStartup() {
+        StartupReport report = this.startup.finish();
+        this.startupReport = report;
+        logger.info("{} started in {} ms with {} beans: {}", getClass().getSimpleName(), report.total().toMillis(), this.beans.size(),
+                report.phases().entrySet().stream().map(e -> e.getKey() + " " + e.getValue().toMillis() + " ms").collect(Collectors.joining(", ")));
+        report.slowest(5).forEach(t -> logger.debug("bean '{}' took {} ms (construct {}, post process {}, inject {}, init {}), created by {}.",
+                t.name(), t.total().toMillis(), t.construct().toMillis(), t.postProcess().toMillis(), t.inject().toMillis(), t.init().toMillis(), t.chain()));
+        String path = this.propertyResolver.getProperty("summer.context.startup.report");
+        if (path != null && !path.isEmpty()) {
+            try {
+                Files.writeString(Paths.get(path), report.toJson());
+            } catch (IOException e) {
+                logger.warn("failed to write startup report {}.", path, e);
+            }
+        }
+    }
 
-        this.creatingBeanNames = new HashSet<>();
+    /**
+     * 返回启动耗时统计，启动完成前返回null
+     */
+    public StartupReport getStartupReport() {
+        return this.startupReport;
+    }
 
+    void refresh() {
+        long start = System.nanoTime();
         this.beans.values().stream()
                 .filter(this::isConfigurationDefinition).sorted().map(def->{
                     createBeanAsEarlySingleton(def);
                     return def.getName();
                 }).collect(Collectors.toList());
+        this.startup.phase("configurations", start);
 
+        start = System.nanoTime();
         List<BeanPostProcessor> processors = this.beans.values().stream()
 
                 .filter(this::isBeanPostProcessorDefinition)
@@ -55,155 +181,304 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     return (BeanPostProcessor)createBeanAsEarlySingleton(def);
                 }).collect(Collectors.toList());
 
+        // Advisor在普通bean之前创建，Advisor和它依赖的bean本身不会被代理:
+        AdvisorRegistry advisorRegistry = AdvisorRegistry.of(this);
+
         this.beanPostProcessors.addAll(processors);
+        // 容器中有Advisor时，所有Advisor的通知由容器自己的BeanPostProcessor合并到一个代理中，排在其他BeanPostProcessor之后:
+        if (!advisorRegistry.getAdvisors().isEmpty()) {
+            this.beanPostProcessors.add(new AdvisorProxyBeanPostProcessor(advisorRegistry));
+        }
+        this.startup.phase("post-processors", start);
 
+        start = System.nanoTime();
         createNormalBeans();
+        this.startup.phase("normal-beans", start);
 
-        this.beans.values().forEach(def->{
+        start = System.nanoTime();
+        // 延迟创建的bean在第一次获取时才注入和初始化，启动过程中通过代理创建的bean已经初始化:
+        this.beans.values().stream().filter(def -> def.getInstance() != null && !def.isInit()).forEach(def->{
             injectBean(def);
         });
+        this.startup.phase("injection", start);
 
-        this.beans.values().forEach(def->{
-            initBean(def);
-        });
-
-
-
+        start = System.nanoTime();
+        initBeans();
+        this.startup.phase("init", start);
     }
 
 
-    void initBean(BeanDefinition def){
-        Object beanInstance = getProxiedInstance(def);
-
-        callMethod(beanInstance,def.getInitMethod(),def.getInitMethodName());
-
-        // 调用BeanPostProcessor.postProcessAfterInitialization():
-        beanPostProcessors.forEach(beanPostProcessor -> {
-            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(), def.getName());
-            if (processedInstance != def.getInstance()) {
-                logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.", beanPostProcessor.getClass().getSimpleName(),
-                        def.getInstance().getClass().getName(), processedInstance.getClass().getName());
-                def.setInstance(processedInstance);
-            }
-        });
-
+    /**
+     * 获取bean实例。
+     * 已经初始化完成的bean只需要一次volatile读，不加锁；
+     * 启动过程中返回可能尚未初始化的早期实例；
+     * 启动完成后如果bean还没有创建，则在锁内完成创建、注入和初始化后再发布，多个线程同时获取也只会创建一次
+     * @param def
+     * @return
+     */
+    Object getSingleton(BeanDefinition def){
+        if (def.isInit()) {
+            return def.getInstance();
+        }
+        if (!this.started) {
+            return def.getRequiredInstance();
+        }
+        return createSingleton(def);
     }
 
-    private void callMethod(Object beanInstance, Method method, String methodName) {
-
-        if(method != null){
-            try{
-                method.invoke(beanInstance);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }else{
-            Method nameMethod = ClassUtils.getNameMethod(beanInstance.getClass(), methodName);
-            nameMethod.setAccessible(true);
-            try {
-                nameMethod.invoke(beanInstance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
+    /**
+     * 在锁内完成创建、注入和初始化后返回bean实例，已经创建的bean直接返回。
+     * 延迟bean的代理总是通过这里获取实例：交出代理时已经决定延迟创建，
+     * 所以启动过程中（例如其他bean的init方法）调用代理时也要能创建它
+     * @param def
+     * @return
+     */
+    Object createSingleton(BeanDefinition def){
+        if (def.isInit()) {
+            return def.getInstance();
+        }
+        synchronized (def) {
+            // 已经有实例但还没有初始化，说明当前线程正在创建它（循环依赖），直接返回早期实例:
+            if (def.getInstance() == null) {
+                logger.atDebug().log("create lazy bean '{}'.", def.getName());
+                createBeanAsEarlySingleton(def);
+                injectBean(def);
+                initBean(def);
             }
+            return def.getInstance();
         }
-
-
     }
 
+    /**
+     * 获取要注入的依赖。
+     * 启动过程中依赖的是尚未创建的延迟bean时，注入一个代理，第一次调用代理的方法时才创建；
+     * 无法代理的类型（非接口且没有无参构造方法）只能立即创建
+     * @param def
+     * @param type 注入点的类型
+     * @return
+     */
+    Object resolveDependency(BeanDefinition def, Class<?> type){
+        if (!def.isSingleton()) {
+            return resolveScopedDependency(def, type);
+        }
+        if (def.isInit() || this.started) {
+            return getSingleton(def);
+        }
+        Object instance = def.getInstance();
+        if (instance != null) {
+            return instance;
+        }
+        if (def.isLazy() && ProxyResolver.canProxy(type)) {
+            logger.atDebug().log("inject lazy proxy of bean '{}' as {}.", def.getName(), type.getName());
+            return ProxyResolver.getInstance().createProxy(type, (proxy, method, args) -> {
+                try {
+                    return method.invoke(createSingleton(def), args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+        return createBeanAsEarlySingleton(def);
+    }
 
-    void injectBean(BeanDefinition def){
-        Object beanInstance = getProxiedInstance(def);
+    /**
+     * 获取非单例bean的依赖。
+     * 原型bean每个注入点都是一个新实例；
+     * 请求作用域和线程作用域的bean注入一个代理，每次调用方法时再取当前请求或当前线程的实例
+     * @param def
+     * @param type
+     * @return
+     */
+    Object resolveScopedDependency(BeanDefinition def, Class<?> type){
+        if (Scope.PROTOTYPE.equals(def.getScope())) {
+            return getInstance(def);
+        }
+        if (!ProxyResolver.canProxy(type)) {
+            throw new RuntimeException(String.format("Cannot create scoped proxy of bean '%s' as %s, use an interface or a class with no-arg constructor.",
+                    def.getName(), type.getName()));
+        }
+        return this.scopedProxies.computeIfAbsent(def, d -> new ConcurrentHashMap<>()).computeIfAbsent(type, t -> {
+            logger.atDebug().log("inject {} scoped proxy of bean '{}' as {}.", def.getScope(), def.getName(), t.getName());
+            return ProxyResolver.getInstance().createProxy(t, (proxy, method, args) -> {
+                try {
+                    return method.invoke(getInstance(def), args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        });
+    }
 
-        try{
-            injectProperties(def,def.getBeanClass(),beanInstance);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    /**
+     * 按作用域获取bean实例，单例bean和getSingleton()相同
+     * @param def
+     * @return
+     */
+    Object getInstance(BeanDefinition def){
+        if (def.isSingleton()) {
+            return getSingleton(def);
         }
+        return getBeanScope(def).get(def, () -> createScopedBean(def));
     }
 
-    void injectProperties(BeanDefinition def, Class<?> clazz, Object bean) throws InvocationTargetException, IllegalAccessException {
-        for(Field f:clazz.getDeclaredFields()){
-            tryInjectProperties(def,clazz,bean,f);
+    BeanScope getBeanScope(BeanDefinition def){
+        switch (def.getScope()) {
+            case Scope.PROTOTYPE:
+                return BeanScope.PROTOTYPE;
+            case Scope.REQUEST:
+                return RequestScope.INSTANCE;
+            case Scope.THREAD:
+                return this.threadScope;
+            default:
+                throw new RuntimeException("Unsupported scope '" + def.getScope() + "' of bean " + def.getName());
         }
-        for(Method m:clazz.getDeclaredMethods()){
-            tryInjectProperties(def,clazz,bean,m);
+    }
+
+    /**
+     * 创建、注入并初始化一个非单例bean的新实例，实例不保存在BeanDefinition中
+     * @param def
+     * @return
+     */
+    Object createScopedBean(BeanDefinition def){
+        Set<String> creating = this.creatingScopedBeanNames.get();
+        if (!creating.add(def.getName())) {
+            throw new RuntimeException("Circular dependency of scoped bean: " + def.getName());
         }
-        // 注入父类
-        Class<?> superclass = clazz.getSuperclass();
-        if (superclass != null) {
-            injectProperties(def, superclass, bean);
+        try {
+            Object instance = instantiate(def);
+            injectBean(def, instance);
+            return initInstance(def, instance);
+        } finally {
+            creating.remove(def.getName());
         }
     }
 
-    void tryInjectProperties(BeanDefinition def, Class<?> clazz, Object bean, AccessibleObject acc) throws IllegalAccessException, InvocationTargetException {
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-        if (value != null && autowired != null) {
-            return;
-        }
-        Field field = null;
-        Method method = null;
-        if (acc instanceof Field f) {
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
+    void initBean(BeanDefinition def){
+        Object instance = initInstance(def, def.getInstance());
+        if (instance != def.getInstance()) {
+            def.setInstance(instance);
         }
-        if (acc instanceof Method m) {
-            checkFieldOrMethod(m);
-            if (m.getParameters().length != 1) {
-                throw new RuntimeException(
-                        String.format("Cannot inject a non-setter method %s for bean '%s': %s", m.getName(), def.getName(), def.getBeanClass().getName()));
+        // 最后设置init，之后其他线程可以不加锁读取实例:
+        def.setInit();
+    }
+
+    /**
+     * 调用init方法和BeanPostProcessor.postProcessAfterInitialization()
+     * @param def
+     * @param instance
+     * @return 处理后的实例
+     */
+    Object initInstance(BeanDefinition def, Object instance){
+        long start = System.nanoTime();
+        def.invokeInitMethod(getProxiedInstance(def, instance));
+        this.startup.step(def, StartupRecorder.Step.INIT, start);
+
+        // 调用BeanPostProcessor.postProcessAfterInitialization():
+        start = System.nanoTime();
+        for (BeanPostProcessor beanPostProcessor : beanPostProcessors) {
+            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(instance, def.getName());
+            if (processedInstance != instance) {
+                logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.", beanPostProcessor.getClass().getSimpleName(),
+                        instance.getClass().getName(), processedInstance.getClass().getName());
+                instance = processedInstance;
             }
-            m.setAccessible(true);
-            method = m;
         }
+        this.startup.step(def, StartupRecorder.Step.POST_PROCESS, start);
+        return instance;
+    }
 
-        String accessibleName = field != null ? field.getName() : method.getName();
-        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
+    void injectBean(BeanDefinition def){
+        long start = System.nanoTime();
+        injectBean(def, def.getInstance());
+        this.startup.step(def, StartupRecorder.Step.INJECT, start);
+    }
+
+    void injectBean(BeanDefinition def, Object instance){
+        Object beanInstance = getProxiedInstance(def, instance);
 
-        if (value != null && autowired != null) {
-            throw new RuntimeException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s",
-                    clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
+        for (InjectionMetadata.InjectedElement element : InjectionMetadata.forClass(def.getBeanClass()).getElements()) {
+            injectElement(def, beanInstance, element);
         }
+    }
 
+    void injectElement(BeanDefinition def, Object bean, InjectionMetadata.InjectedElement element) {
         //@Value注入
-        if (value != null) {
-            Object propValue = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-            if (field != null) {
-                field.set(bean, propValue);
-            }
-            if (method != null) {
-                logger.atDebug().log("Method injection: {}.{} ({})", def.getBeanClass().getName(), accessibleName, propValue);
-                method.invoke(bean, propValue);
+        if (element.value() != null) {
+            Object propValue = resolveValue(element.value(), element.type(), element.getGenericType());
+            if (element.method() != null) {
+                logger.atDebug().log("Method injection: {}.{} ({})", def.getBeanClass().getName(), element.name(), propValue);
             }
-
+            def.inject(bean, element, propValue);
         }
 
         // @Autowired注入
+        Autowired autowired = element.autowired();
         if (autowired != null) {
             String name = autowired.name();
             boolean requried = autowired.value();
-            Object depends = name.isEmpty() ? findBean(accessibleType): findBean(accessibleName, accessibleType);
+            BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(element.type()) : findBeanDefinition(name, element.type());
+            Object depends = dependsOnDef == null ? null : resolveDependency(dependsOnDef, element.type());
             if(requried && depends == null){
-                throw new RuntimeException("required bean not found: " + accessibleType.getName());
+                throw new RuntimeException("required bean not found: " + element.type().getName());
             }
             if(depends != null){
-                if(field != null){
-                    field.set(bean,depends);
-                }
-                if (method != null) {
-                    logger.atDebug().log("Method injection: {}.{} ({})", def.getBeanClass().getName(), accessibleName, depends);
-                    method.invoke(bean, depends);
+                if (element.method() != null) {
+                    logger.atDebug().log("Method injection: {}.{} ({})", def.getBeanClass().getName(), element.name(), depends);
                 }
+                def.inject(bean, element, depends);
             }
+        }
+    }
 
+    /**
+     * 读取@Value的值，类型为Supplier<T>时注入总是读取当前配置的句柄，配置重新加载后不需要重新注入
+     * @param value
+     * @param type
+     * @param genericType
+     * @return
+     */
+    Object resolveValue(Value value, Class<?> type, Type genericType) {
+        if (type == Supplier.class) {
+            Class<?> valueType = String.class;
+            if (genericType instanceof ParameterizedType pt && pt.getActualTypeArguments()[0] instanceof Class<?> c) {
+                valueType = c;
+            }
+            return this.propertyResolver.getPropertySupplier(value.value(), valueType);
         }
+        return this.propertyResolver.getRequiredProperty(value.value(), type);
+    }
+
+    /**
+     * 配置重新加载后，重新注入@Refreshable单例bean的@Value字段和setter方法，重新绑定@ConfigurationProperties的POJO
+     * @param changedKeys
+     */
+    void refreshValues(Set<String> changedKeys) {
+        for (BeanDefinition def : this.beans.values()) {
+            if (!def.isSingleton() || def.getInstance() == null || !def.getBeanClass().isAnnotationPresent(Refreshable.class)) {
+                continue;
+            }
+            Object bean = getProxiedInstance(def, def.getInstance());
+            ConfigurationProperties bound = def.getBeanClass().getAnnotation(ConfigurationProperties.class);
+            if (bound != null && !def.getBeanClass().isRecord()) {
+                try {
+                    this.propertyResolver.bindTo(bound.prefix(), bean);
+                } catch (RuntimeException e) {
+                    logger.warn("cannot rebind properties '{}' to bean '{}'.", bound.prefix(), def.getName(), e);
+                }
+            }
+            for (InjectionMetadata.InjectedElement element : InjectionMetadata.forClass(def.getBeanClass()).getElements()) {
+                if (element.value() == null) {
+                    continue;
+                }
+                try {
+                    injectElement(def, bean, element);
+                } catch (RuntimeException e) {
+                    // 新的配置无法转换时保留原来的值:
+                    logger.warn("cannot refresh {} of bean '{}'.", element.name(), def.getName(), e);
+                }
+            }
+        }
+        logger.info("refreshed @Value of beans after properties changed: {}", changedKeys);
     }
 
     protected <T> T findBean(Class<T> requiredType){
@@ -211,7 +486,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if(def == null){
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getInstance(def);
     }
 
     protected <T> T findBean(String name,Class<T> requiredType){
@@ -219,25 +494,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if(beanDefinition == null){
             return null;
         }
-        return (T) beanDefinition.getRequiredInstance();
+        return (T) getInstance(beanDefinition);
     }
 
 
 
-    void checkFieldOrMethod(Member m){
-        int mod = m.getModifiers();
-        if(Modifier.isStatic(mod)){
-            throw new RuntimeException("static field or method cannot be injected: " + m.getName());
-        }
-        if(Modifier.isFinal(mod)){
-            throw new RuntimeException("final field or method cannot be injected: " + m.getName());
-        }
-
-
-    }
-
-    private Object getProxiedInstance(BeanDefinition def) {
-        Object beanInstance = def.getInstance();
+    private Object getProxiedInstance(BeanDefinition def, Object beanInstance) {
         // 如果Proxy改变了原始Bean，又希望注入到原始Bean，则由BeanPostProcessor指定原始Bean:
         List<BeanPostProcessor> reversedBeanPostProcessors = new ArrayList<>(this.beanPostProcessors);
         Collections.reverse(reversedBeanPostProcessors);
@@ -254,8 +516,13 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
     void createNormalBeans(){
         List<BeanDefinition> defs = this.beans.values().stream()
-                .filter(def -> def.getInstance() == null).sorted().collect(Collectors.toList());
+                .filter(def -> def.isSingleton() && def.getInstance() == null && !def.isLazy()).sorted().collect(Collectors.toList());
 
+        if (this.executor != null) {
+            // 按构造方法和工厂方法的依赖关系并行创建，没有依赖关系的bean同时创建:
+            new BeanGraphExecutor(this.executor).execute(defs, this::findCreationDependencies, this::createBeanAsEarlySingleton);
+            return;
+        }
         defs.forEach(def->{
             if(def.getInstance() == null){
                 createBeanAsEarlySingleton(def);
@@ -263,6 +530,68 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         });
     }
 
+    void initBeans(){
+        List<BeanDefinition> defs = this.beans.values().stream()
+                .filter(def -> def.getInstance() != null && !def.isInit()).sorted().collect(Collectors.toList());
+        if (this.executor != null) {
+            // 依赖的bean初始化完成后才初始化当前bean，包括字段和setter注入的依赖:
+            new BeanGraphExecutor(this.executor).execute(defs, def -> {
+                Set<BeanDefinition> deps = new LinkedHashSet<>(findCreationDependencies(def));
+                deps.addAll(findInjectionDependencies(def));
+                return deps;
+            }, this::initBean);
+            return;
+        }
+        defs.forEach(this::initBean);
+    }
+
+    /**
+     * 查找创建bean时必须先创建的bean：工厂方法所在的配置类，以及构造方法或工厂方法中@Autowired的参数
+     * @param def
+     * @return
+     */
+    Set<BeanDefinition> findCreationDependencies(BeanDefinition def){
+        Set<BeanDefinition> deps = new LinkedHashSet<>();
+        Executable createFn = def.getFactoryName() == null ? def.getConstructor() : def.getFactoryMethod();
+        if (def.getFactoryName() != null) {
+            BeanDefinition factoryDef = findBeanDefinition(def.getFactoryName());
+            if (factoryDef != null) {
+                deps.add(factoryDef);
+            }
+        }
+        Parameter[] parameters = createFn.getParameters();
+        for (Parameter param : parameters) {
+            addDependency(deps, param.getAnnotation(Autowired.class), param.getType());
+        }
+        deps.remove(def);
+        return deps;
+    }
+
+    /**
+     * 查找通过字段或setter方法@Autowired注入的bean
+     * @param def
+     * @return
+     */
+    Set<BeanDefinition> findInjectionDependencies(BeanDefinition def){
+        Set<BeanDefinition> deps = new LinkedHashSet<>();
+        for (InjectionMetadata.InjectedElement element : InjectionMetadata.forClass(def.getBeanClass()).getElements()) {
+            addDependency(deps, element.autowired(), element.type());
+        }
+        deps.remove(def);
+        return deps;
+    }
+
+    void addDependency(Set<BeanDefinition> deps, Autowired autowired, Class<?> type){
+        if (autowired == null) {
+            return;
+        }
+        // 依赖找不到时不在这里报错，留给创建和注入时处理:
+        BeanDefinition dependsOnDef = autowired.name().isEmpty() ? findBeanDefinition(type) : findBeanDefinition(autowired.name());
+        if (dependsOnDef != null) {
+            deps.add(dependsOnDef);
+        }
+    }
+
 
     /**
      * 创建一个bean，然后使用beanPostProcessor进行处理
@@ -273,9 +602,34 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @return
      */
     public Object createBeanAsEarlySingleton(BeanDefinition def){
+        // 并行创建时，同一个bean可能被多个线程同时请求，加锁保证只创建一次:
+        synchronized (def) {
+            if (def.getInstance() != null) {
+                return def.getInstance();
+            }
+            return doCreateBean(def);
+        }
+    }
+
+    Object doCreateBean(BeanDefinition def){
         if(!this.creatingBeanNames.add(def.getName())){
             throw new RuntimeException("bean is created: " + def.getName());
         }
+        this.startup.beginCreate(def);
+        try {
+            def.setInstance(instantiate(def));
+        } finally {
+            this.startup.endCreate(def);
+        }
+        return def.getInstance();
+    }
+
+    /**
+     * 用构造方法或工厂方法创建实例，并调用BeanPostProcessor.postProcessBeforeInitialization()
+     * @param def
+     * @return 处理后的实例
+     */
+    Object instantiate(BeanDefinition def){
 
         Executable createFn = null;
         if(def.getFactoryName() == null){
@@ -283,8 +637,48 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }else{
             createFn = def.getFactoryMethod();
         }
+        // @ConfigurationProperties组件从配置绑定，构造方法参数不需要@Value或@Autowired:
+        ConfigurationProperties bound = def.getFactoryName() == null ? def.getBeanClass().getAnnotation(ConfigurationProperties.class) : null;
+        Object[] args = bound == null ? resolveArguments(def, createFn) : null;
+
+        // 创建bean实例
+        long start = System.nanoTime();
+        Object instance = null;
+        if (bound != null) {
+            instance = this.propertyResolver.bind(bound.prefix(), def.getBeanClass());
+        } else if(def.getFactoryName() == null){
+            // 用构造方法创建
+            instance = def.newInstance(null, args);
+        }else{
+            Object configInstance = getBean(def.getFactoryName());
+            instance = def.newInstance(configInstance, args);
+        }
+        this.startup.step(def, StartupRecorder.Step.CONSTRUCT, start);
+
+        // 调用BeanPostProcessor处理Bean:
+        start = System.nanoTime();
+        for (BeanPostProcessor processor : beanPostProcessors) {
+            Object processed = processor.postProcessBeforeInitialization(instance, def.getName());
+            if (processed == null) {
+                throw new RuntimeException(String.format("PostBeanProcessor returns null when process bean '%s' by %s", def.getName(), processor));
+            }
+            if (instance != processed) {
+                logger.atDebug().log("Bean '{}' was replaced by post processor {}.", def.getName(), processor.getClass().getName());
+                instance = processed;
+            }
+        }
+        this.startup.step(def, StartupRecorder.Step.POST_PROCESS, start);
+        return instance;
+
+    }
 
-        // 创建参数:
+    /**
+     * 解析构造方法或工厂方法的参数，@Value从配置读取，@Autowired从容器获取
+     * @param def
+     * @param createFn
+     * @return
+     */
+    Object[] resolveArguments(BeanDefinition def, Executable createFn) {
         final Parameter[] parameters = createFn.getParameters();
         final Annotation[][] parametesAnnos = createFn.getParameterAnnotations();
         Object[] args = new Object[parameters.length];
@@ -316,17 +710,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                         String.format("Must specify @Autowired or @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
 
-            if(value != null && autowired != null){
-                throw new RuntimeException("value 和 autowired两个注解不能同时存在");
-            }
-            if(value == null && autowired == null){
-                throw new RuntimeException("value 和 autowired两个注解必须存在一个");
-            }
-
             Class<?> type = param.getType();
             if (value != null){
                 // 当参数是@Value时，说明应该从配置文件中获取值:
-                args[i] = this.propertyResolver.getRequiredProperty(value.value(), type);
+                args[i] = resolveValue(value, type, param.getParameterizedType());
             } else{
                 // 当参数是@Autowired时，说明应该从容器中获取值:
                 String name = autowired.name();
@@ -338,46 +725,14 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     throw new RuntimeException("required bean not found: " + type.getName());
                 }
                 if(dependsOnDef != null){
-                    // 获取依赖的bean
-                    Object instance = dependsOnDef.getInstance();
-                    if(instance == null && !isConfiguration && !isBeanPostProcessor){
-                        // 说明当前类还没有初始化，需要先初始化
-                        instance  = createBeanAsEarlySingleton(dependsOnDef);
-                    }
-                    args[i] = i;
+                    // 获取依赖的bean，还没有创建时先创建，延迟创建的bean注入代理
+                    args[i] = resolveDependency(dependsOnDef, type);
                 }else {
                     args[i] = null;
                 }
             }
-
-            // 创建bean实例
-            Object instance = null;
-            if(def.getFactoryName() == null){
-                // 用构造方法创建
-                try{
-                     instance = def.getConstructor().newInstance(args);
-                } catch (InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                } catch (InstantiationException e) {
-                    throw new RuntimeException(e);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
-            }else{
-                Object configInstance = getBean(def.getFactoryName());
-                try {
-                    def.getFactoryMethod().invoke(configInstance,args);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                } catch (InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            def.setInstance(instance);
-
         }
-        return def.getInstance();
-
+        return args;
     }
 
     @Override
@@ -390,7 +745,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if(def == null){
             throw new RuntimeException("bean not found: " + name);
         }
-        return (T) def.getRequiredInstance();
+        return (T) getInstance(def);
 
     }
 
@@ -409,7 +764,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new RuntimeException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getInstance(def);
     }
 
     @Override
@@ -420,14 +775,62 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
         List<T> list = new ArrayList<>(defs.size());
         for (var def : defs) {
-            list.add((T) def.getRequiredInstance());
+            list.add((T) getInstance(def));
         }
         return list;
     }
 
+    /**
+     * 关闭容器，按依赖关系的逆序调用单例bean的destroy方法，重复调用只关闭一次。
+     * 并行度、单个bean的时限和总时限分别由summer.context.shutdown.parallelism、
+     * summer.context.shutdown.bean-timeout和summer.context.shutdown.timeout配置
+     */
     @Override
     public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Closing {}...", getClass().getName());
+        this.propertyResolver.removeChangeListener(this.refreshListener);
+        Integer parallelism = this.propertyResolver.getProperty("summer.context.shutdown.parallelism", Integer.class);
+        Duration beanTimeout = this.propertyResolver.getProperty("summer.context.shutdown.bean-timeout", Duration.class);
+        Duration timeout = this.propertyResolver.getProperty("summer.context.shutdown.timeout", Duration.class);
+        ContextShutdown shutdown = new ContextShutdown(parallelism == null ? Runtime.getRuntime().availableProcessors() : Math.max(1, parallelism),
+                beanTimeout == null ? Duration.ofSeconds(10) : beanTimeout, timeout == null ? Duration.ofSeconds(30) : timeout);
+
+        List<BeanDefinition> defs = this.beans.values().stream()
+                .filter(def -> def.isSingleton() && def.getInstance() != null).sorted().collect(Collectors.toList());
+        ShutdownReport report = shutdown.shutdown(defs, def -> {
+            Set<BeanDefinition> deps = new LinkedHashSet<>(findCreationDependencies(def));
+            deps.addAll(findInjectionDependencies(def));
+            return deps;
+        }, def -> def.invokeDestroyMethod(getProxiedInstance(def, def.getInstance())));
+
+        // 所有线程的线程作用域bean，最后清除当前线程的ThreadLocal:
+        this.threadScope.destroyAll();
+        this.threadScope.clear();
+
+        // 对象池中空闲的请求作用域bean:
+        for (BeanDefinition def : this.beans.values()) {
+            BeanPool pool = def.getPool();
+            for (Object instance = pool == null ? null : pool.acquire(); instance != null; instance = pool.acquire()) {
+                def.invokeDestroyMethod(instance);
+            }
+        }
+        this.shutdownReport = report;
+        if (ApplicationContextUtils.getApplicationContext() == this) {
+            ApplicationContextUtils.setApplicationContext(null);
+        }
+        logger.info("{} closed in {} ms: {} destroy methods called, {} failed, {} timed out, {} abandoned.", getClass().getSimpleName(),
+                report.duration().toMillis(), report.beanDurations().size(), report.failed().size(), report.timedOut().size(), report.abandoned().size());
+        report.slowest(5).forEach(e -> logger.debug("destroy bean '{}' took {} ms.", e.getKey(), e.getValue().toMillis()));
+    }
 
+    /**
+     * 返回最近一次close()的统计，没有关闭时返回null
+     */
+    public ShutdownReport getShutdownReport() {
+        return this.shutdownReport;
     }
 
 
@@ -448,6 +851,18 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public BeanDefinition findBeanDefinition(Class<?> type){
+        BeanDefinition cached = this.primaryDefinitions.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        BeanDefinition def = findPrimaryBeanDefinition(type);
+        if (def != null) {
+            this.primaryDefinitions.put(type, def);
+        }
+        return def;
+    }
+
+    BeanDefinition findPrimaryBeanDefinition(Class<?> type){
         List<BeanDefinition> defs = findBeanDefinitions(type);
         if(defs.isEmpty()){
             return null;
@@ -464,8 +879,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public List<BeanDefinition> findBeanDefinitions(Class<?> type){
-        return this.beans.values().stream()
-                .filter(def->type.isAssignableFrom(def.getBeanClass())).collect(Collectors.toList());
+        return this.typeIndex.find(type);
     }
 
 
@@ -474,7 +888,94 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     boolean isConfigurationDefinition(BeanDefinition def){
-        return ClassUtils.findAnnotationMethod(def.getBeanClass(), Configuration.class) != null;
+        return ClassUtils.findAnnotation(def.getBeanClass(), Configuration.class) != null;
+    }
+
+    /**
+     * 扫描并创建BeanDefinition。
+     * 配置了summer.context.snapshot时，扫描位置没有变化则直接从快照读取，否则扫描后写入快照
+     * @param configClass
+     * @return
+     */
+    Map<String, BeanDefinition> loadBeanDefinitions(Class<?> configClass){
+        String snapshotPath = this.propertyResolver.getProperty("summer.context.snapshot");
+        if (snapshotPath == null || snapshotPath.isEmpty()) {
+            return scanBeanDefinitions(configClass);
+        }
+        long start = System.nanoTime();
+        ContextSnapshot snapshot = new ContextSnapshot(Paths.get(snapshotPath), getContextClassLoader());
+        String fingerprint = snapshot.fingerprint(findScanLocations(configClass), configClass.getName(), String.valueOf(this.lazyInit),
+                String.valueOf(this.propertyResolver.getProperty("summer.index.ignore")));
+        Map<String, BeanDefinition> defs = snapshot.read(fingerprint);
+        this.startup.phase("snapshot", start);
+        if (defs != null) {
+            logger.debug("load {} bean definitions from snapshot {}.", defs.size(), snapshotPath);
+            return defs;
+        }
+        defs = scanBeanDefinitions(configClass);
+        snapshot.write(fingerprint, defs.values());
+        return defs;
+    }
+
+    /**
+     * 查找扫描包、组件索引和@Import配置类所在的目录和jar，只有这些位置的变化会影响扫描结果
+     * @param configClass
+     * @return
+     */
+    List<String> findScanLocations(Class<?> configClass) {
+        List<String> resourceNames = new ArrayList<>();
+        for (String pkg : getScanPackages(configClass)) {
+            resourceNames.add(pkg.replace(".", "/"));
+        }
+        resourceNames.add(ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+        resourceNames.add(configClass.getName().replace(".", "/") + ".class");
+        Import importConfig = configClass.getAnnotation(Import.class);
+        if (importConfig != null) {
+            for (Class<?> importConfigClass : importConfig.value()) {
+                resourceNames.add(importConfigClass.getName().replace(".", "/") + ".class");
+            }
+        }
+        return ContextSnapshot.locations(getContextClassLoader(), resourceNames);
+    }
+
+    Map<String, BeanDefinition> scanBeanDefinitions(Class<?> configClass){
+        long start = System.nanoTime();
+        Set<String> beanClassNames = scanForClassNames(configClass);
+        this.startup.phase("scan", start);
+
+        start = System.nanoTime();
+        Map<String, BeanDefinition> defs = createBeanDefinitions(beanClassNames);
+        this.startup.phase("definitions", start);
+        return defs;
+    }
+
+    /**
+     * 加载编译期生成的GeneratedBeanFactory，设置到对应的BeanDefinition上。
+     * 配置summer.factory.ignore=true时忽略生成的工厂，全部使用反射
+     * @param defs
+     */
+    void attachGeneratedFactories(Collection<BeanDefinition> defs){
+        Boolean ignore = this.propertyResolver.getProperty("summer.factory.ignore", Boolean.class);
+        if (ignore != null && ignore) {
+            return;
+        }
+        Map<Class<?>, GeneratedBeanFactory> factories = new HashMap<>();
+        for (GeneratedBeanFactory factory : ServiceLoader.load(GeneratedBeanFactory.class, getContextClassLoader())) {
+            factories.put(factory.getBeanClass(), factory);
+        }
+        if (factories.isEmpty()) {
+            return;
+        }
+        int attached = 0;
+        for (BeanDefinition def : defs) {
+            Class<?> componentClass = def.getFactoryName() == null ? def.getBeanClass() : def.getFactoryMethod().getDeclaringClass();
+            GeneratedBeanFactory factory = factories.get(componentClass);
+            if (factory != null) {
+                def.setGeneratedFactory(factory);
+                attached++;
+            }
+        }
+        logger.debug("use generated factories for {} of {} beans.", attached, defs.size());
     }
 
     /**
@@ -487,7 +988,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         for(String className:classNameSet){
             Class<?> clazz = null;
             try {
-                clazz = Class.forName(className);
+                clazz = Class.forName(className, true, getContextClassLoader());
             } catch (ClassNotFoundException e) {
                 throw new RuntimeException(e);
             }
@@ -508,9 +1009,13 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
                 String beanName = ClassUtils.getBeanName(clazz);
                 var def = new BeanDefinition(beanName,clazz,getSuitableConstructor(clazz),getOrder(clazz)
-                        , clazz.isAnnotationPresent(Primary.class),null,null
+                        , clazz.isAnnotationPresent(Primary.class),isLazy(clazz.getAnnotation(Lazy.class))
+                        ,getScope(className, clazz.getAnnotation(Scope.class)),getPoolSize(className, clazz.getAnnotation(Scope.class), clazz.getAnnotation(Pooled.class)),null,null
                 ,ClassUtils.findAnnotationMethod(clazz, PostConstruct.class)
                 ,ClassUtils.findAnnotationMethod(clazz, PreDestroy.class));
+                if(BeanPostProcessor.class.isAssignableFrom(clazz) && !def.isSingleton()){
+                    throw new RuntimeException("BeanPostProcessor must be singleton: " + className);
+                }
                 addBeanDefinitions(defs,def);
 
                 // 判断是否是配置类，配置类上不允许有前置处理
@@ -519,6 +1024,9 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     if(BeanPostProcessor.class.isAssignableFrom(clazz)){
                         throw new RuntimeException("配置类上不允许有前置处理");
                     }
+                    if(!def.isSingleton()){
+                        throw new RuntimeException("@Configuration must be singleton: " + className);
+                    }
                     scanFactoryMethod(beanName,clazz,defs);
                 }
 
@@ -563,6 +1071,9 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
                 var def = new BeanDefinition(ClassUtils.getBeanName(method), beanClass, factoryBeanName,method,getOrder(method),
                         method.isAnnotationPresent(Primary.class),
+                        isLazy(method.getAnnotation(Lazy.class)),
+                        getScope(clazz.getName() + "." + method.getName(), method.getAnnotation(Scope.class)),
+                        getPoolSize(clazz.getName() + "." + method.getName(), method.getAnnotation(Scope.class), method.getAnnotation(Pooled.class)),
                         bean.initMethod().isEmpty() ? null : bean.initMethod(),
                         bean.destroyMethod().isEmpty() ? null : bean.destroyMethod(),
                         null,null);
@@ -579,6 +1090,52 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    /**
+     * 有@Lazy时以注解为准，否则使用summer.context.lazy-init的配置
+     * @param lazy
+     * @return
+     */
+    boolean isLazy(Lazy lazy){
+        return lazy != null ? lazy.value() : this.lazyInit;
+    }
+
+    /**
+     * 返回@Scope指定的作用域，没有则为单例
+     * @param source 类名或方法名，用于错误信息
+     * @param scope
+     * @return
+     */
+    String getScope(String source, Scope scope){
+        if(scope == null){
+            return Scope.SINGLETON;
+        }
+        String value = scope.value();
+        if(!Scope.SINGLETON.equals(value) && !Scope.PROTOTYPE.equals(value) && !Scope.REQUEST.equals(value) && !Scope.THREAD.equals(value)){
+            throw new RuntimeException("Unsupported scope '" + value + "' on " + source);
+        }
+        return value;
+    }
+
+    /**
+     * 返回@Pooled指定的池大小，只允许用于请求作用域
+     * @param source
+     * @param scope
+     * @param pooled
+     * @return 没有@Pooled时返回0
+     */
+    int getPoolSize(String source, Scope scope, Pooled pooled){
+        if(pooled == null){
+            return 0;
+        }
+        if(scope == null || !Scope.REQUEST.equals(scope.value())){
+            throw new RuntimeException("@Pooled is only supported on request scoped bean: " + source);
+        }
+        if(pooled.max() <= 0){
+            throw new RuntimeException("@Pooled max must be positive: " + source);
+        }
+        return pooled.max();
+    }
+
     /**
      * 返回类上的@Order注解的值，如果没有，则返回Integer.MAX_VALUE
      * @param clazz
@@ -625,20 +1182,40 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * @return
      */
     protected Set<String> scanForClassNames(Class<?> configClass) {
-        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
-        final String[] scanPackages = scan == null || scan.value().length == 0 ? new String[]{configClass.getPackage().getName()} : scan.value();
-
-        Set<String> classNameSet = new HashSet<>();
-        for (String pkg : scanPackages) {
-            ResourceResolver resourceResolver = new ResourceResolver(pkg);
-            List<String> classList = resourceResolver.scan(res -> {
-                String name = res.name();
-                if (name.endsWith(".class")) {
-                    return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+        final String[] scanPackages = getScanPackages(configClass);
+
+        Set<String> classNameSet = new LinkedHashSet<>();
+        // 带有编译期生成的组件索引的目录和jar直接读取索引，其他目录和jar仍然遍历:
+        ComponentIndex index = loadComponentIndex();
+        Predicate<String> unindexed = null;
+        if (index != null) {
+            for (String pkg : scanPackages) {
+                classNameSet.addAll(index.getCandidateTypes(pkg));
+            }
+            unindexed = root -> !index.isIndexed(root);
+        }
+        // 解析字节码判断是否为@Component，只有组件类才会在后续被加载:
+        ClassMetadataReader metadataReader = new ClassMetadataReader(getContextClassLoader());
+        Function<Resource, String> mapper = res -> {
+            String name = res.name().replace("\\", "/");
+            // 直接读取扫描到的文件，不再通过ClassLoader查找同一个类:
+            if (name.endsWith(".class") && metadataReader.isCandidate(res.readAllBytes(), Component.class.getName())) {
+                return name.substring(0, name.length() - 6).replace("/", ".");
+            }
+            return null;
+        };
+        // summer.scan.parallelism大于1时，多个包、多个jar并行扫描:
+        Integer parallelism = this.propertyResolver.getProperty("summer.scan.parallelism", Integer.class);
+        if (parallelism != null && parallelism > 1) {
+            classNameSet.addAll(ResourceResolver.scan(Arrays.asList(scanPackages), mapper, parallelism, unindexed));
+        } else {
+            // 多个包共用打开的jar，扫描结束后统一关闭:
+            try (ScanSession session = new ScanSession()) {
+                for (String pkg : scanPackages) {
+                    ResourceResolver resourceResolver = new ResourceResolver(pkg, session, unindexed);
+                    classNameSet.addAll(resourceResolver.scan(mapper));
                 }
-                return null;
-            });
-            classNameSet.addAll(classList);
+            }
         }
 
         // 查找@Import(Xyz.class):
@@ -658,4 +1235,38 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
     }
 
+    /**
+     * 配置类上@ComponentScan指定的包，没有指定时为配置类所在的包
+     * @param configClass
+     * @return
+     */
+    String[] getScanPackages(Class<?> configClass) {
+        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
+        return scan == null || scan.value().length == 0 ? new String[]{configClass.getPackage().getName()} : scan.value();
+    }
+
+    /**
+     * 加载组件索引，配置summer.index.ignore=true时忽略索引
+     * @return
+     */
+    ComponentIndex loadComponentIndex() {
+        Boolean ignore = this.propertyResolver.getProperty("summer.index.ignore", Boolean.class);
+        if (ignore != null && ignore) {
+            return null;
+        }
+        ComponentIndex index = ComponentIndex.load(getContextClassLoader());
+        if (index != null) {
+            logger.debug("use component index with {} candidates.", index.size());
+        }
+        return index;
+    }
+
+    ClassLoader getContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = getClass().getClassLoader();
+        }
+        return cl;
+    }
+
 }
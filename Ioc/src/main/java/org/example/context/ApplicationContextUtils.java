@@ -7,7 +7,7 @@ import java.util.Objects;
 
 public class ApplicationContextUtils {
 
-    private static ApplicationContext applicationContext = null;
+    private static volatile ApplicationContext applicationContext = null;
 
     @Nonnull
     public static ApplicationContext getRequiredApplicationContext() {
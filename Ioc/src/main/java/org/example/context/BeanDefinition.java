@@ -1,7 +1,10 @@
 package org.example.context;
 
 import jakarta.annotation.Nullable;
+import org.example.annotation.Scope;
+import org.example.utils.ClassUtils;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -30,7 +33,15 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
 
     private final boolean primary;
 
-    private boolean init = false;
+    private final boolean lazy;
+
+    private final String scope;
+
+    // 只有@Pooled的请求作用域bean才有对象池:
+    private final BeanPool pool;
+
+    // 创建、注入和初始化全部完成后才设置为true，通过volatile写安全发布instance:
+    private volatile boolean init = false;
 
     private String initMethodName;
     private String destroyMethodName;
@@ -38,8 +49,16 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
     private Method initMethod;
     private Method destroyMethod;
 
+    // 第一次使用时由BeanInvokers生成:
+    private volatile MethodHandle createHandle;
+    private volatile MethodHandle initHandle;
+    private volatile MethodHandle destroyHandle;
+
+    // 编译期生成的工厂，存在时创建和注入不使用反射:
+    private GeneratedBeanFactory generatedFactory;
 
-    public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, String initMethodName,
+
+    public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, boolean lazy, String scope, int poolSize, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
         this.beanClass = beanClass;
@@ -48,12 +67,15 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         this.factoryMethod = null;
         this.order = order;
         this.primary = primary;
+        this.lazy = lazy;
+        this.scope = scope;
+        this.pool = poolSize > 0 ? new BeanPool(poolSize) : null;
         constructor.setAccessible(true);
         setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
 
 
-    public BeanDefinition(String name, Class<?> beanClass, String factoryName, Method factoryMethod, int order, boolean primary, String initMethodName,
+    public BeanDefinition(String name, Class<?> beanClass, String factoryName, Method factoryMethod, int order, boolean primary, boolean lazy, String scope, int poolSize, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
         this.beanClass = beanClass;
@@ -62,6 +84,9 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         this.factoryMethod = factoryMethod;
         this.order = order;
         this.primary = primary;
+        this.lazy = lazy;
+        this.scope = scope;
+        this.pool = poolSize > 0 ? new BeanPool(poolSize) : null;
         factoryMethod.setAccessible(true);
         setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
@@ -153,10 +178,35 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         this.init = true;
     }
 
+    public int getOrder() {
+        return this.order;
+    }
+
+    public int getPoolSize() {
+        return this.pool == null ? 0 : this.pool.slots.length();
+    }
+
     public boolean isPrimary() {
         return this.primary;
     }
 
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    public String getScope() {
+        return this.scope;
+    }
+
+    public boolean isSingleton() {
+        return Scope.SINGLETON.equals(this.scope);
+    }
+
+    @Nullable
+    BeanPool getPool() {
+        return this.pool;
+    }
+
     @Override
     public String toString() {
         return "BeanDefinition{" +
@@ -168,6 +218,8 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
                 ", factoryMethod=" + factoryMethod +
                 ", order=" + order +
                 ", primary=" + primary +
+                ", lazy=" + lazy +
+                ", scope='" + scope + '\'' +
                 ", init=" + init +
                 ", initMethodName='" + initMethodName + '\'' +
                 ", destroyMethodName='" + destroyMethodName + '\'' +
@@ -176,6 +228,105 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
                 '}';
     }
 
+    /**
+     * 用构造方法或工厂方法创建实例
+     * @param factory 工厂方法所在的配置类实例，用构造方法创建时为null
+     * @param args
+     * @return
+     */
+    Object newInstance(Object factory, Object[] args) {
+        GeneratedBeanFactory generated = this.generatedFactory;
+        if (generated != null) {
+            return this.constructor != null ? generated.newInstance(args) : generated.invokeFactoryMethod(factory, this.factoryMethod.getName(), args);
+        }
+        MethodHandle handle = this.createHandle;
+        if (handle == null) {
+            handle = this.constructor != null ? BeanInvokers.forConstructor(this.constructor) : BeanInvokers.forFactoryMethod(this.factoryMethod);
+            this.createHandle = handle;
+        }
+        try {
+            return this.constructor != null ? (Object) handle.invokeExact(args) : (Object) handle.invokeExact(factory, args);
+        } catch (Throwable t) {
+            throw BeanInvokers.rethrow(t);
+        }
+    }
+
+    /**
+     * 注入字段或setter方法，生成的工厂没有对应的注入点时使用MethodHandle
+     */
+    void inject(Object bean, InjectionMetadata.InjectedElement element, Object value) {
+        GeneratedBeanFactory generated = this.generatedFactory;
+        // 生成的工厂只包含组件类自己声明的注入点，父类的注入点和@Bean创建的bean仍然用MethodHandle:
+        if (generated != null && this.constructor != null && element.getDeclaringClass() == this.beanClass
+                && generated.inject(bean, element.name(), value)) {
+            return;
+        }
+        element.inject(bean, value);
+    }
+
+    @Nullable
+    GeneratedBeanFactory getGeneratedFactory() {
+        return this.generatedFactory;
+    }
+
+    void setGeneratedFactory(GeneratedBeanFactory generatedFactory) {
+        this.generatedFactory = generatedFactory;
+    }
+
+    /**
+     * 调用init方法，没有则什么都不做
+     */
+    void invokeInitMethod(Object bean) {
+        MethodHandle handle = this.initHandle;
+        if (handle == null) {
+            handle = callbackHandle(bean, this.initMethod, this.initMethodName);
+            if (handle == null) {
+                return;
+            }
+            this.initHandle = handle;
+        }
+        invokeCallback(handle, bean);
+    }
+
+    boolean hasDestroyMethod() {
+        return this.destroyMethod != null || this.destroyMethodName != null;
+    }
+
+    /**
+     * 调用destroy方法，没有则什么都不做
+     */
+    void invokeDestroyMethod(Object bean) {
+        MethodHandle handle = this.destroyHandle;
+        if (handle == null) {
+            handle = callbackHandle(bean, this.destroyMethod, this.destroyMethodName);
+            if (handle == null) {
+                return;
+            }
+            this.destroyHandle = handle;
+        }
+        invokeCallback(handle, bean);
+    }
+
+    private static MethodHandle callbackHandle(Object bean, Method method, String methodName) {
+        if (method == null && methodName == null) {
+            return null;
+        }
+        if (method == null) {
+            // @Bean(initMethod="xyz")指定的方法在实例的类上查找:
+            method = ClassUtils.getNameMethod(bean.getClass(), methodName);
+            method.setAccessible(true);
+        }
+        return BeanInvokers.forCallback(method);
+    }
+
+    private static void invokeCallback(MethodHandle handle, Object bean) {
+        try {
+            handle.invokeExact(bean);
+        } catch (Throwable t) {
+            throw BeanInvokers.rethrow(t);
+        }
+    }
+
     String getCreateDetail(){
         if (this.factoryMethod != null) {
             String params = String.join(", ", Arrays.stream(this.factoryMethod.getParameterTypes()).map(t -> t.getSimpleName()).toArray(String[]::new));
@@ -0,0 +1,108 @@
+package org.example.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按bean之间的依赖关系（DAG）并行执行任务：一个bean的任务在它依赖的所有bean的任务完成后才会提交到executor，
+ * 同时就绪的bean按@Order顺序提交。
+ *
+ * 存在循环依赖的bean无法排序，会在其他bean全部完成后按顺序在一个线程中执行，由任务本身报告循环依赖。
+ */
+class BeanGraphExecutor {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    final Executor executor;
+
+    BeanGraphExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param defs 已经按@Order排好序的bean
+     * @param dependencies 返回bean依赖的其他bean，不在defs中的依赖会被忽略
+     * @param action 对每个bean执行的任务
+     */
+    void execute(List<BeanDefinition> defs, Function<BeanDefinition, Collection<BeanDefinition>> dependencies, Consumer<BeanDefinition> action) {
+        // 计算入度和反向边:
+        Map<BeanDefinition, List<BeanDefinition>> deps = new LinkedHashMap<>();
+        Map<BeanDefinition, List<BeanDefinition>> dependents = new HashMap<>();
+        Map<BeanDefinition, Integer> inDegrees = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            deps.put(def, new ArrayList<>());
+            dependents.put(def, new ArrayList<>());
+        }
+        for (BeanDefinition def : defs) {
+            for (BeanDefinition dep : dependencies.apply(def)) {
+                if (deps.containsKey(dep)) {
+                    deps.get(def).add(dep);
+                    dependents.get(dep).add(def);
+                }
+            }
+            inDegrees.put(def, deps.get(def).size());
+        }
+
+        // 拓扑排序，同时就绪的bean按@Order排序:
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new HashMap<>();
+        PriorityQueue<BeanDefinition> ready = new PriorityQueue<>();
+        for (BeanDefinition def : defs) {
+            if (inDegrees.get(def) == 0) {
+                ready.add(def);
+            }
+        }
+        while (!ready.isEmpty()) {
+            BeanDefinition def = ready.poll();
+            CompletableFuture<Void> future;
+            List<BeanDefinition> defDeps = deps.get(def);
+            if (defDeps.isEmpty()) {
+                future = CompletableFuture.runAsync(() -> action.accept(def), this.executor);
+            } else {
+                CompletableFuture<?>[] depFutures = defDeps.stream().map(futures::get).toArray(CompletableFuture[]::new);
+                future = CompletableFuture.allOf(depFutures).thenRunAsync(() -> action.accept(def), this.executor);
+            }
+            futures.put(def, future);
+            for (BeanDefinition dependent : dependents.get(def)) {
+                if (inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        join(CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)));
+
+        // 剩下的都是存在循环依赖的bean:
+        for (BeanDefinition def : defs) {
+            if (!futures.containsKey(def)) {
+                logger.debug("bean '{}' has circular dependencies, execute it sequentially.", def.getName());
+                action.accept(def);
+            }
+        }
+    }
+
+    void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 把构造方法、工厂方法、init/destroy方法和注入点转换为统一签名的MethodHandle。
+ *
+ * 转换只在第一次使用时进行一次，结果缓存在BeanDefinition和InjectionMetadata中，
+ * 之后调用不再有反射的访问检查，也不需要每次通过Method.invoke()包装异常。
+ */
+final class BeanInvokers {
+
+    static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    static final MethodType CREATE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    static final MethodType CALLBACK_TYPE = MethodType.methodType(void.class, Object.class);
+
+    static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private BeanInvokers() {
+    }
+
+    /**
+     * (Object[] args) -> new Bean(args...)
+     */
+    static MethodHandle forConstructor(Constructor<?> constructor) {
+        try {
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            return handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(CREATE_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * (Object factory, Object[] args) -> factory.method(args...)
+     */
+    static MethodHandle forFactoryMethod(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return handle.asSpreader(Object[].class, method.getParameterCount()).asType(FACTORY_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * (Object bean) -> bean.method()，返回值被忽略
+     */
+    static MethodHandle forCallback(Method method) {
+        try {
+            return LOOKUP.unreflect(method).asType(CALLBACK_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * (Object bean, Object value) -> bean.field = value
+     */
+    static MethodHandle forSetter(Field field) {
+        try {
+            return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * (Object bean, Object value) -> bean.setXyz(value)，返回值被忽略
+     */
+    static MethodHandle forSetter(Method method) {
+        try {
+            return LOOKUP.unreflect(method).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 运行期异常和Error直接抛出，其他异常包装为RuntimeException
+     */
+    static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        return new RuntimeException(t);
+    }
+}
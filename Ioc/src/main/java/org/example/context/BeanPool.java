@@ -0,0 +1,51 @@
+package org.example.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定大小的无锁对象池，用于回收@Pooled的bean实例。
+ *
+ * 每个槽位通过CAS存取，池满时release()返回false，由调用方销毁实例。
+ */
+class BeanPool {
+
+    final AtomicReferenceArray<Object> slots;
+
+    BeanPool(int max) {
+        this.slots = new AtomicReferenceArray<>(max);
+    }
+
+    @Nullable
+    Object acquire() {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                Object instance = slots.getAndSet(i, null);
+                if (instance != null) {
+                    return instance;
+                }
+            }
+        }
+        return null;
+    }
+
+    boolean release(Object instance) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, instance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        int n = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.context;
+
+import java.util.function.Supplier;
+
+/**
+ * 非单例bean的作用域，决定什么时候复用已有实例，什么时候创建新实例。
+ */
+public interface BeanScope {
+
+    /**
+     * 返回当前作用域内的实例，不存在时调用creator创建
+     * @param def
+     * @param creator 创建、注入并初始化一个新实例
+     * @return
+     */
+    Object get(BeanDefinition def, Supplier<Object> creator);
+
+    /**
+     * 每次获取都创建新实例
+     */
+    BeanScope PROTOTYPE = (def, creator) -> creator.get();
+}
@@ -0,0 +1,58 @@
+package org.example.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按类型查找BeanDefinition的索引：注册时把每个bean的类、所有父类和所有接口都映射到对应的BeanDefinition，
+ * 之后按类型查找只需要一次map查询。
+ */
+class BeanTypeIndex {
+
+    final Map<Class<?>, List<BeanDefinition>> index = new HashMap<>();
+
+    BeanTypeIndex(Collection<BeanDefinition> defs) {
+        Map<Class<?>, List<BeanDefinition>> lists = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            for (Class<?> type : getAllTypes(def.getBeanClass())) {
+                lists.computeIfAbsent(type, k -> new ArrayList<>()).add(def);
+            }
+        }
+        lists.forEach((type, list) -> this.index.put(type, List.copyOf(list)));
+    }
+
+    /**
+     * 返回可以赋值给type的所有BeanDefinition，没有则返回空List
+     */
+    List<BeanDefinition> find(Class<?> type) {
+        return this.index.getOrDefault(type, List.of());
+    }
+
+    /**
+     * 返回类本身、所有父类和所有接口，基本类型和数组只返回自身
+     */
+    static Set<Class<?>> getAllTypes(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            types.add(c);
+            addInterfaces(c, types);
+        }
+        if (clazz.isInterface() || clazz.isArray()) {
+            types.add(Object.class);
+        }
+        return types;
+    }
+
+    static void addInterfaces(Class<?> clazz, Set<Class<?>> types) {
+        for (Class<?> i : clazz.getInterfaces()) {
+            if (types.add(i)) {
+                addInterfaces(i, types);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按依赖关系的逆序执行bean的destroy方法：一个bean在依赖它的所有bean销毁之后才销毁，互不依赖的分支并行执行。
+ *
+ * destroy方法在大小为parallelism的线程池中执行。每个bean的destroy方法有单独的时限，超时后中断执行线程，不再等待，继续销毁它依赖的bean；
+ * 整个关闭过程有总时限，超过后放弃剩下的bean并关闭线程池。线程池的线程是守护线程，卡住的destroy方法不会阻止JVM退出。
+ */
+class ContextShutdown {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    final int parallelism;
+
+    final Duration beanTimeout;
+
+    final Duration timeout;
+
+    ContextShutdown(int parallelism, Duration beanTimeout, Duration timeout) {
+        this.parallelism = parallelism;
+        this.beanTimeout = beanTimeout;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param defs 已经按@Order排好序的bean，即创建顺序
+     * @param dependencies 返回bean依赖的其他bean，不在defs中的依赖会被忽略
+     * @param destroy 调用bean的destroy方法
+     * @return
+     */
+    ShutdownReport shutdown(List<BeanDefinition> defs, Function<BeanDefinition, Collection<BeanDefinition>> dependencies, Consumer<BeanDefinition> destroy) {
+        long start = System.nanoTime();
+        Map<BeanDefinition, List<BeanDefinition>> dependents = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            dependents.put(def, new ArrayList<>());
+        }
+        for (BeanDefinition def : defs) {
+            for (BeanDefinition dep : dependencies.apply(def)) {
+                if (dependents.containsKey(dep) && dep != def) {
+                    dependents.get(dep).add(def);
+                }
+            }
+        }
+        List<BeanDefinition> order = destroyOrder(defs, dependents);
+
+        Map<String, Duration> durations = new ConcurrentHashMap<>();
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        List<String> timedOut = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(this.parallelism, new ShutdownThreadFactory());
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (BeanDefinition def : order) {
+            // 只等待排在前面的bean，存在循环依赖时按排序的顺序销毁，不会互相等待:
+            CompletableFuture<?>[] waits = dependents.get(def).stream().map(futures::get).filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> ready = waits.length == 0 ? CompletableFuture.completedFuture(null) : CompletableFuture.allOf(waits);
+            CompletableFuture<Void> future;
+            if (!def.hasDestroyMethod()) {
+                // 没有destroy方法的bean只用于传递顺序:
+                future = ready;
+            } else {
+                future = ready.thenCompose(v -> destroyAsync(def, destroy, executor, durations)).handle((r, e) -> {
+                    if (e instanceof CompletionException && e.getCause() != null) {
+                        e = e.getCause();
+                    }
+                    if (e instanceof RejectedExecutionException) {
+                        // 超过总时限后线程池已经关闭，bean已经计入abandoned:
+                        logger.debug("skip destroying bean '{}' after shutdown timeout.", def.getName());
+                    } else if (e instanceof TimeoutException) {
+                        logger.warn("destroy bean '{}' timed out after {} ms.", def.getName(), this.beanTimeout.toMillis());
+                        timedOut.add(def.getName());
+                    } else if (e != null) {
+                        logger.warn("destroy bean '{}' failed.", def.getName(), e);
+                        failed.add(def.getName());
+                    }
+                    return null;
+                });
+            }
+            futures.put(def, future);
+        }
+
+        List<String> abandoned = new ArrayList<>();
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futures.forEach((def, future) -> {
+                if (!future.isDone()) {
+                    abandoned.add(def.getName());
+                }
+            });
+            logger.warn("shutdown exceeded {} ms, abandon {} beans: {}", this.timeout.toMillis(), abandoned.size(), abandoned);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while closing context.", e);
+        } catch (ExecutionException e) {
+            // 每个bean的异常都已经在handle()中处理:
+            throw new RuntimeException(e.getCause());
+        } finally {
+            // 中断超过总时限仍在执行的destroy方法，丢弃还没有开始的:
+            executor.shutdownNow();
+        }
+        return new ShutdownReport(Duration.ofNanos(System.nanoTime() - start), Map.copyOf(durations), List.copyOf(failed),
+                List.copyOf(timedOut), abandoned);
+    }
+
+    /**
+     * 在线程池中执行一个bean的destroy方法，同时执行的bean不超过线程池的大小。
+     * 时限从destroy方法开始执行时计算，在线程池中排队的时间不计入，超时后中断执行线程
+     */
+    CompletableFuture<Void> destroyAsync(BeanDefinition def, Consumer<BeanDefinition> destroy, ExecutorService executor,
+                                         Map<String, Duration> durations) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            result.orTimeout(this.beanTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            try {
+                destroy.accept(def);
+                durations.put(def.getName(), Duration.ofNanos(System.nanoTime() - start));
+                result.complete(null);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        // cancel()只中断仍在执行这个任务的线程，不会影响线程之后执行的其他bean:
+        result.whenComplete((r, e) -> {
+            if (e instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 拓扑排序：没有被其他bean依赖的先销毁，同时就绪的bean按创建顺序的逆序销毁，循环依赖的bean排在最后
+     */
+    List<BeanDefinition> destroyOrder(List<BeanDefinition> defs, Map<BeanDefinition, List<BeanDefinition>> dependents) {
+        Map<BeanDefinition, Integer> remaining = new HashMap<>();
+        Map<BeanDefinition, List<BeanDefinition>> dependencies = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            remaining.put(def, dependents.get(def).size());
+            for (BeanDefinition dependent : dependents.get(def)) {
+                dependencies.computeIfAbsent(dependent, k -> new ArrayList<>()).add(def);
+            }
+        }
+        PriorityQueue<BeanDefinition> ready = new PriorityQueue<>(Comparator.reverseOrder());
+        for (BeanDefinition def : defs) {
+            if (remaining.get(def) == 0) {
+                ready.add(def);
+            }
+        }
+        List<BeanDefinition> order = new ArrayList<>(defs.size());
+        Set<BeanDefinition> visited = new HashSet<>();
+        while (!ready.isEmpty()) {
+            BeanDefinition def = ready.poll();
+            order.add(def);
+            visited.add(def);
+            for (BeanDefinition dep : dependencies.getOrDefault(def, List.of())) {
+                if (remaining.merge(dep, -1, Integer::sum) == 0) {
+                    ready.add(dep);
+                }
+            }
+        }
+        for (int i = defs.size() - 1; i >= 0; i--) {
+            BeanDefinition def = defs.get(i);
+            if (!visited.contains(def)) {
+                logger.debug("bean '{}' has circular dependencies, destroy it in reverse creation order.", def.getName());
+                order.add(def);
+            }
+        }
+        return order;
+    }
+
+    static class ShutdownThreadFactory implements ThreadFactory {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "summer-shutdown-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 把解析好的BeanDefinition保存为二进制快照，下次启动时直接读取，跳过扫描、构造方法选择和@Bean方法查找。
+ *
+ * 快照中记录扫描位置的指纹（扫描包所在的每个jar、目录下每个文件的路径、大小、修改时间），指纹不一致时快照失效，重新扫描后覆盖。
+ * 扫描位置通过context classloader查找，不依赖java.class.path，自定义classloader加载的组件变化时快照同样失效。
+ * 快照只保存类名、方法签名和注解解析的结果，不保存实例。
+ */
+class ContextSnapshot {
+
+    static final Logger logger = LoggerFactory.getLogger(ContextSnapshot.class);
+
+    static final int MAGIC = 0x53554d52;
+
+    static final int VERSION = 1;
+
+    static final int KIND_CONSTRUCTOR = 0;
+
+    static final int KIND_FACTORY = 1;
+
+    final Path path;
+
+    final ClassLoader classLoader;
+
+    ContextSnapshot(Path path, ClassLoader classLoader) {
+        this.path = path;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 读取快照，快照不存在、指纹不一致或类已经变化时返回null
+     * @param fingerprint
+     * @return
+     */
+    Map<String, BeanDefinition> read(String fingerprint) {
+        if (!Files.isRegularFile(this.path)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                logger.info("ignore context snapshot {} with unknown format.", this.path);
+                return null;
+            }
+            if (!fingerprint.equals(input.readUTF())) {
+                logger.info("context snapshot {} is stale, classpath has changed.", this.path);
+                return null;
+            }
+            int size = input.readInt();
+            Map<String, BeanDefinition> defs = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                BeanDefinition def = readDefinition(input);
+                defs.put(def.getName(), def);
+            }
+            return defs;
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            logger.warn("failed to read context snapshot {}, fall back to scan.", this.path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照，先写临时文件再替换，其他进程不会读到写了一半的文件
+     * @param fingerprint
+     * @param defs
+     */
+    void write(String fingerprint, Collection<BeanDefinition> defs) {
+        try {
+            Path dir = this.path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, this.path.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(fingerprint);
+                output.writeInt(defs.size());
+                for (BeanDefinition def : defs) {
+                    writeDefinition(output, def);
+                }
+            }
+            Files.move(tmp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("write context snapshot {} with {} beans.", this.path, defs.size());
+        } catch (IOException e) {
+            logger.warn("failed to write context snapshot {}.", this.path, e);
+        }
+    }
+
+    void writeDefinition(DataOutputStream output, BeanDefinition def) throws IOException {
+        output.writeUTF(def.getName());
+        output.writeUTF(def.getBeanClass().getName());
+        if (def.getFactoryName() == null) {
+            output.writeByte(KIND_CONSTRUCTOR);
+            writeTypes(output, def.getConstructor().getParameterTypes());
+        } else {
+            output.writeByte(KIND_FACTORY);
+            output.writeUTF(def.getFactoryName());
+            Method method = def.getFactoryMethod();
+            output.writeUTF(method.getDeclaringClass().getName());
+            output.writeUTF(method.getName());
+            writeTypes(output, method.getParameterTypes());
+        }
+        output.writeInt(def.getOrder());
+        output.writeBoolean(def.isPrimary());
+        output.writeBoolean(def.isLazy());
+        output.writeUTF(def.getScope());
+        output.writeInt(def.getPoolSize());
+        writeNullable(output, def.getInitMethodName());
+        writeNullable(output, def.getDestroyMethodName());
+        writeMethod(output, def.getInitMethod());
+        writeMethod(output, def.getDestroyMethod());
+    }
+
+    BeanDefinition readDefinition(DataInputStream input) throws IOException, ReflectiveOperationException {
+        String name = input.readUTF();
+        Class<?> beanClass = loadClass(input.readUTF());
+        int kind = input.readByte();
+        if (kind == KIND_CONSTRUCTOR) {
+            Constructor<?> constructor = beanClass.getDeclaredConstructor(readTypes(input));
+            return new BeanDefinition(name, beanClass, constructor, input.readInt(), input.readBoolean(), input.readBoolean(),
+                    input.readUTF(), input.readInt(), readNullable(input), readNullable(input), readMethod(input), readMethod(input));
+        }
+        String factoryName = input.readUTF();
+        Class<?> declaringClass = loadClass(input.readUTF());
+        String methodName = input.readUTF();
+        Method factoryMethod = declaringClass.getMethod(methodName, readTypes(input));
+        return new BeanDefinition(name, beanClass, factoryName, factoryMethod, input.readInt(), input.readBoolean(), input.readBoolean(),
+                input.readUTF(), input.readInt(), readNullable(input), readNullable(input), readMethod(input), readMethod(input));
+    }
+
+    void writeTypes(DataOutputStream output, Class<?>[] types) throws IOException {
+        output.writeShort(types.length);
+        for (Class<?> type : types) {
+            output.writeUTF(type.getName());
+        }
+    }
+
+    Class<?>[] readTypes(DataInputStream input) throws IOException, ClassNotFoundException {
+        Class<?>[] types = new Class<?>[input.readShort()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = loadClass(input.readUTF());
+        }
+        return types;
+    }
+
+    // init和destroy方法都没有参数，只需要声明类和方法名:
+    void writeMethod(DataOutputStream output, Method method) throws IOException {
+        output.writeBoolean(method != null);
+        if (method != null) {
+            output.writeUTF(method.getDeclaringClass().getName());
+            output.writeUTF(method.getName());
+        }
+    }
+
+    Method readMethod(DataInputStream input) throws IOException, ReflectiveOperationException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        return loadClass(input.readUTF()).getDeclaredMethod(input.readUTF());
+    }
+
+    void writeNullable(DataOutputStream output, String s) throws IOException {
+        output.writeBoolean(s != null);
+        if (s != null) {
+            output.writeUTF(s);
+        }
+    }
+
+    String readNullable(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    Class<?> loadClass(String name) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "short": return short.class;
+            case "char": return char.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            default: return Class.forName(name, false, this.classLoader);
+        }
+    }
+
+    /**
+     * 通过classloader查找资源所在的位置：目录中的资源返回该资源对应的目录或文件，jar中的资源返回jar文件，
+     * 其他协议返回URL本身
+     * @param classLoader
+     * @param resourceNames 包路径（如org/example）或资源路径（如META-INF/summer.components）
+     * @return
+     */
+    static List<String> locations(ClassLoader classLoader, List<String> resourceNames) {
+        Set<String> locations = new LinkedHashSet<>();
+        try {
+            for (String resourceName : resourceNames) {
+                Enumeration<URL> urls = classLoader.getResources(resourceName);
+                while (urls.hasMoreElements()) {
+                    locations.add(location(urls.nextElement()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ArrayList<>(locations);
+    }
+
+    static String location(URL url) {
+        try {
+            switch (url.getProtocol()) {
+                case "file":
+                    return Paths.get(url.toURI()).toString();
+                case "jar":
+                    // jar:file:/path/to/app.jar!/org/example:
+                    String path = url.getPath();
+                    int n = path.indexOf("!/");
+                    URL jar = new URL(n < 0 ? path : path.substring(0, n));
+                    return "file".equals(jar.getProtocol()) ? Paths.get(jar.toURI()).toString() : jar.toString();
+                default:
+                    return url.toString();
+            }
+        } catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+            return url.toString();
+        }
+    }
+
+    /**
+     * 计算扫描位置的指纹：jar只比较大小和修改时间，目录遍历其中的每个文件，不读取文件内容
+     * @param classPath 扫描位置，即包含扫描包的目录和jar
+     * @param extras 其他影响BeanDefinition的内容，如配置类和summer.context.lazy-init
+     * @return
+     */
+    String fingerprint(List<String> classPath, String... extras) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        for (String extra : extras) {
+            update(digest, extra);
+        }
+        Path self = this.path.toAbsolutePath().normalize();
+        for (String entry : classPath) {
+            Path p = Paths.get(entry).toAbsolutePath().normalize();
+            update(digest, p.toString());
+            try {
+                if (Files.isDirectory(p)) {
+                    List<String> files = new ArrayList<>();
+                    try (Stream<Path> stream = Files.walk(p)) {
+                        stream.filter(file -> !file.equals(self) && !file.getFileName().toString().endsWith(".tmp")).forEach(file -> {
+                            try {
+                                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                                if (attrs.isRegularFile()) {
+                                    files.add(p.relativize(file) + ":" + attrs.size() + ":" + attrs.lastModifiedTime().toMillis());
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                    // 遍历顺序与文件系统有关，排序后再计算:
+                    Collections.sort(files);
+                    files.forEach(f -> update(digest, f));
+                } else if (Files.exists(p)) {
+                    update(digest, Files.size(p) + ":" + Files.getLastModifiedTime(p).toMillis());
+                }
+            } catch (IOException | UncheckedIOException e) {
+                throw new RuntimeException("Cannot compute classpath fingerprint of " + p, e);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
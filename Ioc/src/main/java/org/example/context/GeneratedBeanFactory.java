@@ -0,0 +1,40 @@
+package org.example.context;
+
+/**
+ * 由{@link GeneratedBeanFactoryProcessor}在编译期为每个组件类生成的工厂，
+ * 直接调用构造方法、@Bean方法，直接给字段赋值或调用setter，不使用反射。
+ *
+ * 生成的工厂通过META-INF/services注册，容器启动时用ServiceLoader加载。
+ */
+public interface GeneratedBeanFactory {
+
+    /**
+     * 对应的组件类
+     */
+    Class<?> getBeanClass();
+
+    /**
+     * 调用组件类的构造方法
+     * @param args 构造方法参数
+     * @return
+     */
+    Object newInstance(Object[] args);
+
+    /**
+     * 调用组件类上声明的@Bean方法
+     * @param factory 组件实例
+     * @param methodName @Bean方法名
+     * @param args 方法参数
+     * @return
+     */
+    Object invokeFactoryMethod(Object factory, String methodName, Object[] args);
+
+    /**
+     * 注入组件类上声明的@Autowired或@Value字段、setter方法
+     * @param bean
+     * @param member 字段名或方法名
+     * @param value
+     * @return 没有生成该注入点时返回false，由容器用反射注入
+     */
+    boolean inject(Object bean, String member, Object value);
+}
@@ -0,0 +1,357 @@
+package org.example.context;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Bean;
+import org.example.annotation.Primary;
+import org.example.annotation.Value;
+import org.example.index.ComponentIndexProcessor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 编译期为每个@Component类生成{@link GeneratedBeanFactory}，类名为组件类名加上$$SummerFactory，
+ * 并写入META-INF/services注册。容器加载到生成的工厂后，创建和注入不再使用反射。
+ *
+ * 同时在编译期检查@Autowired依赖：找到多个候选且没有@Primary时报错；
+ * 找不到候选时默认只警告（依赖可能来自其他模块），指定-Asummer.factory.strict=true时报错。
+ *
+ * 私有构造方法、重载的@Bean方法等无法直接调用的类不生成工厂，仍然使用反射。
+ * 和{@link ComponentIndexProcessor}一样，该处理器需要在编译时显式启用。
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(GeneratedBeanFactoryProcessor.STRICT_OPTION)
+public class GeneratedBeanFactoryProcessor extends AbstractProcessor {
+
+    static final String STRICT_OPTION = "summer.factory.strict";
+
+    static final String COMPONENT_ANNOTATION = "org.example.annotation.Component";
+
+    static final String CONFIGURATION_ANNOTATION = "org.example.annotation.Configuration";
+
+    static final String CONFIGURATION_PROPERTIES_ANNOTATION = "org.example.annotation.ConfigurationProperties";
+
+    static final String FACTORY_SUFFIX = "$$SummerFactory";
+
+    static final String SERVICE_RESOURCE_LOCATION = "META-INF/services/" + GeneratedBeanFactory.class.getName();
+
+    final Set<String> factories = new TreeSet<>();
+
+    final List<Candidate> candidates = new ArrayList<>();
+
+    final List<Dependency> dependencies = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        if (roundEnv.processingOver()) {
+            verifyDependencies();
+            writeServices();
+        }
+        return false;
+    }
+
+    void collect(Element element) {
+        if ((element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) && ComponentIndexProcessor.isAnnotated(element, COMPONENT_ANNOTATION, new HashSet<>())) {
+            processComponent((TypeElement) element);
+        }
+        // 静态内部类和内部record也可以是组件:
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.RECORD
+                    || enclosed.getKind() == ElementKind.CLASS && enclosed.getModifiers().contains(Modifier.STATIC)) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    void processComponent(TypeElement type) {
+        boolean primary = type.getAnnotation(Primary.class) != null;
+        this.candidates.add(new Candidate(getBeanName(type), type.asType(), primary));
+
+        ExecutableElement constructor = findConstructor(type);
+        List<ExecutableElement> beanMethods = new ArrayList<>();
+        List<Element> injections = new ArrayList<>();
+        // @ConfigurationProperties组件由容器从配置绑定，不使用构造方法:
+        boolean bound = ComponentIndexProcessor.isAnnotated(type, CONFIGURATION_PROPERTIES_ANNOTATION, new HashSet<>());
+        boolean generate = constructor != null && !bound && !type.getModifiers().contains(Modifier.PRIVATE)
+                && !type.getModifiers().contains(Modifier.ABSTRACT);
+        if (constructor != null && !bound) {
+            collectParameterDependencies(constructor);
+        }
+
+        boolean configuration = ComponentIndexProcessor.isAnnotated(type, CONFIGURATION_ANNOTATION, new HashSet<>());
+        Set<String> beanMethodNames = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            Bean bean = method.getAnnotation(Bean.class);
+            if (configuration && bean != null) {
+                String name = bean.value().isEmpty() ? method.getSimpleName().toString() : bean.value();
+                this.candidates.add(new Candidate(name, method.getReturnType(), method.getAnnotation(Primary.class) != null));
+                collectParameterDependencies(method);
+                if (!beanMethodNames.add(method.getSimpleName().toString())) {
+                    note(method, "overloaded @Bean method is created by reflection.");
+                    generate = false;
+                }
+                if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                    generate = false;
+                }
+                beanMethods.add(method);
+            }
+            if (isInjectionPoint(method)) {
+                if (method.getParameters().size() != 1) {
+                    error(method, "Cannot inject a non-setter method " + method.getSimpleName());
+                    continue;
+                }
+                addInjection(injections, method, method.getParameters().get(0).asType());
+            }
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (isInjectionPoint(field)) {
+                addInjection(injections, field, field.asType());
+            }
+        }
+        if (generate) {
+            writeFactory(type, constructor, beanMethods, injections);
+        }
+    }
+
+    boolean isInjectionPoint(Element element) {
+        return element.getAnnotation(Autowired.class) != null || element.getAnnotation(Value.class) != null;
+    }
+
+    void addInjection(List<Element> injections, Element element, TypeMirror type) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.STATIC)) {
+            error(element, "static field or method cannot be injected: " + element.getSimpleName());
+            return;
+        }
+        if (modifiers.contains(Modifier.FINAL)) {
+            error(element, "final field or method cannot be injected: " + element.getSimpleName());
+            return;
+        }
+        Autowired autowired = element.getAnnotation(Autowired.class);
+        if (autowired != null && element.getAnnotation(Value.class) != null) {
+            error(element, "Cannot specify both @Autowired and @Value when inject " + element.getSimpleName());
+            return;
+        }
+        if (autowired != null) {
+            this.dependencies.add(new Dependency(element, type, autowired.name(), autowired.value()));
+        }
+        // 私有成员只能由容器用反射注入:
+        if (!modifiers.contains(Modifier.PRIVATE)) {
+            injections.add(element);
+        }
+    }
+
+    void collectParameterDependencies(ExecutableElement executable) {
+        for (VariableElement param : executable.getParameters()) {
+            Autowired autowired = param.getAnnotation(Autowired.class);
+            Value value = param.getAnnotation(Value.class);
+            if (autowired != null && value != null) {
+                error(param, "Cannot specify both @Autowired and @Value on parameter " + param.getSimpleName());
+            } else if (autowired == null && value == null) {
+                error(param, "Must specify @Autowired or @Value on parameter " + param.getSimpleName());
+            } else if (autowired != null) {
+                this.dependencies.add(new Dependency(param, param.asType(), autowired.name(), autowired.value()));
+            }
+        }
+    }
+
+    /**
+     * 与AnnotationConfigApplicationContext.getSuitableConstructor()相同：唯一的public构造方法，没有public构造方法时为唯一的构造方法
+     */
+    ExecutableElement findConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> publicConstructors = constructors.stream().filter(c -> c.getModifiers().contains(Modifier.PUBLIC)).toList();
+        List<ExecutableElement> suitable = publicConstructors.isEmpty() ? constructors : publicConstructors;
+        if (suitable.size() != 1) {
+            error(type, "more than one constructor found: " + type.getQualifiedName());
+            return null;
+        }
+        ExecutableElement constructor = suitable.get(0);
+        return constructor.getModifiers().contains(Modifier.PRIVATE) ? null : constructor;
+    }
+
+    String getBeanName(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            Element annoType = mirror.getAnnotationType().asElement();
+            boolean component = ((TypeElement) annoType).getQualifiedName().contentEquals(COMPONENT_ANNOTATION)
+                    || ComponentIndexProcessor.isAnnotated(annoType, COMPONENT_ANNOTATION, new HashSet<>());
+            if (!component) {
+                continue;
+            }
+            for (var entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value") && entry.getValue().getValue() instanceof String name && !name.isEmpty()) {
+                    return name;
+                }
+            }
+        }
+        String name = type.getSimpleName().toString();
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    void writeFactory(TypeElement type, ExecutableElement constructor, List<ExecutableElement> beanMethods, List<Element> injections) {
+        Types types = processingEnv.getTypeUtils();
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + FACTORY_SUFFIX;
+        String typeName = types.erasure(type.asType()).toString();
+
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements ").append(GeneratedBeanFactory.class.getName()).append(" {\n\n");
+
+        sb.append("    @Override\n    public Class<?> getBeanClass() {\n");
+        sb.append("        return ").append(typeName).append(".class;\n    }\n\n");
+
+        sb.append("    @Override\n    public Object newInstance(Object[] args) {\n");
+        sb.append("        return new ").append(typeName).append("(").append(arguments(constructor)).append(");\n    }\n\n");
+
+        sb.append("    @Override\n    public Object invokeFactoryMethod(Object factory, String methodName, Object[] args) {\n");
+        sb.append("        switch (methodName) {\n");
+        for (ExecutableElement method : beanMethods) {
+            sb.append("            case \"").append(method.getSimpleName()).append("\":\n");
+            sb.append("                return ((").append(typeName).append(") factory).").append(method.getSimpleName())
+                    .append("(").append(arguments(method)).append(");\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                throw new RuntimeException(\"No @Bean method \" + methodName + \" in ").append(typeName).append("\");\n");
+        sb.append("        }\n    }\n\n");
+
+        sb.append("    @Override\n    public boolean inject(Object bean, String member, Object value) {\n");
+        sb.append("        switch (member) {\n");
+        // 容器按名称注入，同名的字段和方法、重载的setter无法区分，不生成case，由容器用反射注入:
+        Map<String, Long> nameCounts = injections.stream()
+                .collect(Collectors.groupingBy(e -> e.getSimpleName().toString(), Collectors.counting()));
+        for (Element element : injections) {
+            if (nameCounts.get(element.getSimpleName().toString()) > 1) {
+                note(element, "injection point with duplicate name is injected by reflection: " + element.getSimpleName());
+                continue;
+            }
+            sb.append("            case \"").append(element.getSimpleName()).append("\":\n");
+            if (element instanceof VariableElement field) {
+                sb.append("                ((").append(typeName).append(") bean).").append(field.getSimpleName())
+                        .append(" = (").append(types.erasure(field.asType())).append(") value;\n");
+            } else {
+                ExecutableElement method = (ExecutableElement) element;
+                sb.append("                ((").append(typeName).append(") bean).").append(method.getSimpleName())
+                        .append("((").append(types.erasure(method.getParameters().get(0).asType())).append(") value);\n");
+            }
+            sb.append("                return true;\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                return false;\n");
+        sb.append("        }\n    }\n}\n");
+
+        String factoryName = binaryName + FACTORY_SUFFIX;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                    packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+            this.factories.add(factoryName);
+        } catch (IOException e) {
+            error(type, "Cannot write bean factory " + factoryName + ": " + e.getMessage());
+        }
+    }
+
+    String arguments(ExecutableElement executable) {
+        Types types = processingEnv.getTypeUtils();
+        StringJoiner sj = new StringJoiner(", ");
+        List<? extends VariableElement> params = executable.getParameters();
+        for (int i = 0; i < params.size(); i++) {
+            sj.add("(" + types.erasure(params.get(i).asType()) + ") args[" + i + "]");
+        }
+        return sj.toString();
+    }
+
+    /**
+     * 检查@Autowired依赖，和AnnotationConfigApplicationContext.findBeanDefinition()的规则一致
+     */
+    void verifyDependencies() {
+        Types types = processingEnv.getTypeUtils();
+        boolean strict = Boolean.parseBoolean(processingEnv.getOptions().get(STRICT_OPTION));
+        for (Dependency dep : this.dependencies) {
+            TypeMirror type = boxed(types.erasure(dep.type()));
+            List<Candidate> found = new ArrayList<>();
+            for (Candidate candidate : this.candidates) {
+                boolean matches = dep.name().isEmpty() || dep.name().equals(candidate.name());
+                if (matches && types.isAssignable(boxed(types.erasure(candidate.type())), type)) {
+                    found.add(candidate);
+                }
+            }
+            if (found.isEmpty()) {
+                if (dep.required()) {
+                    String message = "required bean not found: " + type + (dep.name().isEmpty() ? "" : " with name '" + dep.name() + "'");
+                    processingEnv.getMessager().printMessage(strict ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING, message, dep.element());
+                }
+            } else if (found.size() > 1 && found.stream().filter(Candidate::primary).count() != 1) {
+                error(dep.element(), "Multiple bean with type '" + type + "' found, but no or more than one @Primary specified.");
+            }
+        }
+    }
+
+    TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+        return type;
+    }
+
+    void writeServices() {
+        if (this.factories.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_RESOURCE_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String factory : this.factories) {
+                    writer.write(factory);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write bean factory services: " + e.getMessage());
+        }
+    }
+
+    void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    record Candidate(String name, TypeMirror type, boolean primary) {
+    }
+
+    record Dependency(Element element, TypeMirror type, String name, boolean required) {
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.context;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Value;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个类（包括父类）上所有@Value和@Autowired标注的字段和setter方法。
+ *
+ * 反射查找和校验只在第一次使用某个类时进行一次，结果按类缓存，
+ * 同一个类的多个实例、多个容器共用，注入时只需要遍历预先解析好的注入点。
+ */
+class InjectionMetadata {
+
+    private static final ClassValue<InjectionMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected InjectionMetadata computeValue(Class<?> type) {
+            return new InjectionMetadata(type);
+        }
+    };
+
+    final List<InjectedElement> elements;
+
+    InjectionMetadata(Class<?> clazz) {
+        List<InjectedElement> elements = new ArrayList<>();
+        // 先注入子类，再注入父类:
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                addElement(elements, clazz, f);
+            }
+            for (Method m : c.getDeclaredMethods()) {
+                addElement(elements, clazz, m);
+            }
+        }
+        this.elements = List.copyOf(elements);
+    }
+
+    static InjectionMetadata forClass(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    List<InjectedElement> getElements() {
+        return this.elements;
+    }
+
+    static void addElement(List<InjectedElement> elements, Class<?> beanClass, AccessibleObject acc) {
+        Value value = acc.getAnnotation(Value.class);
+        Autowired autowired = acc.getAnnotation(Autowired.class);
+        if (value == null && autowired == null) {
+            return;
+        }
+        Field field = null;
+        Method method = null;
+        if (acc instanceof Field f) {
+            checkFieldOrMethod(f);
+            f.setAccessible(true);
+            field = f;
+        }
+        if (acc instanceof Method m) {
+            checkFieldOrMethod(m);
+            if (m.getParameters().length != 1) {
+                throw new RuntimeException(
+                        String.format("Cannot inject a non-setter method %s for bean class: %s", m.getName(), beanClass.getName()));
+            }
+            m.setAccessible(true);
+            method = m;
+        }
+
+        String name = field != null ? field.getName() : method.getName();
+        Class<?> type = field != null ? field.getType() : method.getParameterTypes()[0];
+
+        if (value != null && autowired != null) {
+            throw new RuntimeException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean class: %s",
+                    ((Member) acc).getDeclaringClass().getSimpleName(), name, beanClass.getName()));
+        }
+        MethodHandle setter = field != null ? BeanInvokers.forSetter(field) : BeanInvokers.forSetter(method);
+        elements.add(new InjectedElement(field, method, name, type, value, autowired, setter));
+    }
+
+    static void checkFieldOrMethod(Member m) {
+        int mod = m.getModifiers();
+        if (Modifier.isStatic(mod)) {
+            throw new RuntimeException("static field or method cannot be injected: " + m.getName());
+        }
+        if (Modifier.isFinal(mod)) {
+            throw new RuntimeException("final field or method cannot be injected: " + m.getName());
+        }
+    }
+
+    /**
+     * 一个注入点：field和method有且只有一个不为null，value和autowired有且只有一个不为null
+     */
+    record InjectedElement(Field field, Method method, String name, Class<?> type, Value value, Autowired autowired, MethodHandle setter) {
+
+        Class<?> getDeclaringClass() {
+            return field != null ? field.getDeclaringClass() : method.getDeclaringClass();
+        }
+
+        Type getGenericType() {
+            return field != null ? field.getGenericType() : method.getGenericParameterTypes()[0];
+        }
+
+        void inject(Object bean, Object arg) {
+            try {
+                setter.invokeExact(bean, arg);
+            } catch (Throwable t) {
+                throw BeanInvokers.rethrow(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 请求作用域：同一个请求内复用同一个实例，由DispatcherServlet在处理请求前后调用begin()和end()。
+ *
+ * 请求结束时，@Pooled的实例归还到对象池，其他实例调用destroy方法。
+ */
+public class RequestScope implements BeanScope {
+
+    static final Logger logger = LoggerFactory.getLogger(RequestScope.class);
+
+    static final RequestScope INSTANCE = new RequestScope();
+
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 一个请求内创建的实例，previous为同一线程上外层的请求（如forward或include时嵌套处理）
+     */
+    record Request(Map<BeanDefinition, Object> instances, Request previous) {
+    }
+
+    /**
+     * 当前线程开始处理一个请求，已经在处理的请求在end()之后恢复
+     */
+    public static void begin() {
+        CURRENT.set(new Request(new IdentityHashMap<>(), CURRENT.get()));
+    }
+
+    /**
+     * 当前线程处理完请求，释放请求内创建的bean，并恢复外层的请求
+     */
+    public static void end() {
+        Request request = CURRENT.get();
+        if (request == null) {
+            return;
+        }
+        if (request.previous() == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(request.previous());
+        }
+        request.instances().forEach((def, instance) -> {
+            BeanPool pool = def.getPool();
+            if (pool != null && pool.release(instance)) {
+                return;
+            }
+            try {
+                def.invokeDestroyMethod(instance);
+            } catch (RuntimeException e) {
+                logger.warn("destroy request scoped bean '{}' failed.", def.getName(), e);
+            }
+        });
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    @Override
+    public Object get(BeanDefinition def, Supplier<Object> creator) {
+        Request request = CURRENT.get();
+        if (request == null) {
+            throw new RuntimeException(String.format("No request bound to current thread for request scoped bean '%s'.", def.getName()));
+        }
+        Map<BeanDefinition, Object> instances = request.instances();
+        Object instance = instances.get(def);
+        if (instance == null) {
+            BeanPool pool = def.getPool();
+            instance = pool == null ? null : pool.acquire();
+            if (instance == null) {
+                instance = creator.get();
+            }
+            instances.put(def, instance);
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.context;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 容器关闭的统计：总耗时、每个bean的destroy方法耗时，以及失败、超时和在总时限内没有执行的bean。
+ *
+ * @param duration 关闭总耗时
+ * @param beanDurations 执行了destroy方法的bean的耗时
+ * @param failed destroy方法抛出异常的bean
+ * @param timedOut destroy方法超过单个bean时限的bean
+ * @param abandoned 超过总时限时还没有执行完的bean
+ */
+public record ShutdownReport(Duration duration, Map<String, Duration> beanDurations, List<String> failed, List<String> timedOut,
+                             List<String> abandoned) {
+
+    /**
+     * 返回耗时最长的n个bean
+     */
+    public List<Map.Entry<String, Duration>> slowest(int n) {
+        return this.beanDurations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(n)
+                .toList();
+    }
+
+    public boolean isClean() {
+        return this.failed.isEmpty() && this.timedOut.isEmpty() && this.abandoned.isEmpty();
+    }
+}
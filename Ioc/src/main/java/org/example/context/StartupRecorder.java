@@ -0,0 +1,189 @@
+package org.example.context;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 记录启动过程中各阶段和每个单例bean的耗时，启动完成后生成{@link StartupReport}，之后不再记录。
+ *
+ * 每次记录只有两次System.nanoTime()和一次Map查找；开启summer.context.startup.jfr时同时发出JFR事件。
+ */
+class StartupRecorder {
+
+    enum Step {
+        CONSTRUCT, POST_PROCESS, INJECT, INIT
+    }
+
+    final long startNanos = System.nanoTime();
+
+    final Map<String, Duration> phases = new LinkedHashMap<>();
+
+    // 按开始创建的顺序排列:
+    final Map<String, BeanRecord> beans = new ConcurrentHashMap<>();
+
+    final AtomicInteger sequence = new AtomicInteger();
+
+    // 每个线程上正在创建的bean，栈空时移除，启动完成后清空，不在executor的线程上留下状态:
+    final Map<Thread, Deque<String>> creating = new ConcurrentHashMap<>();
+
+    volatile boolean recording = true;
+
+    boolean jfr = false;
+
+    void setJfr(boolean jfr) {
+        this.jfr = jfr;
+    }
+
+    void phase(String name, long start) {
+        long duration = System.nanoTime() - start;
+        if (!this.recording) {
+            return;
+        }
+        synchronized (this.phases) {
+            this.phases.merge(name, Duration.ofNanos(duration), Duration::plus);
+        }
+        if (this.jfr) {
+            StartupPhaseEvent event = new StartupPhaseEvent();
+            if (event.isEnabled()) {
+                event.phase = name;
+                event.elapsed = duration;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 开始创建一个单例bean，记录当前线程上正在创建的bean作为依赖链。
+     * 调用方必须在finally中调用endCreate()，创建失败时也要出栈
+     */
+    void beginCreate(BeanDefinition def) {
+        if (!this.recording) {
+            return;
+        }
+        Deque<String> stack = this.creating.computeIfAbsent(Thread.currentThread(), thread -> new ArrayDeque<>());
+        this.beans.computeIfAbsent(def.getName(), name -> new BeanRecord(def, this.sequence.getAndIncrement(), reversed(stack)));
+        stack.push(def.getName());
+    }
+
+    void endCreate(BeanDefinition def) {
+        Thread thread = Thread.currentThread();
+        Deque<String> stack = this.creating.get(thread);
+        if (stack == null) {
+            return;
+        }
+        if (def.getName().equals(stack.peek())) {
+            stack.pop();
+        }
+        if (stack.isEmpty()) {
+            this.creating.remove(thread);
+        }
+    }
+
+    void step(BeanDefinition def, Step step, long start) {
+        long duration = System.nanoTime() - start;
+        if (!this.recording || !def.isSingleton()) {
+            return;
+        }
+        BeanRecord record = this.beans.computeIfAbsent(def.getName(), name -> new BeanRecord(def, this.sequence.getAndIncrement(), List.of()));
+        record.nanos[step.ordinal()] += duration;
+        if (this.jfr) {
+            BeanStartupEvent event = new BeanStartupEvent();
+            if (event.isEnabled()) {
+                event.beanName = def.getName();
+                event.beanClass = def.getBeanClass();
+                event.step = step.name();
+                event.elapsed = duration;
+                event.commit();
+            }
+        }
+    }
+
+    StartupReport finish() {
+        this.recording = false;
+        this.creating.clear();
+        List<StartupReport.BeanTiming> timings = new ArrayList<>(this.beans.size());
+        this.beans.values().stream().sorted(Comparator.comparingInt(r -> r.index)).forEach(r -> timings.add(r.toTiming()));
+        Map<String, Duration> phases;
+        synchronized (this.phases) {
+            phases = new LinkedHashMap<>(this.phases);
+        }
+        return new StartupReport(Duration.ofNanos(System.nanoTime() - this.startNanos), phases, timings);
+    }
+
+    static List<String> reversed(Deque<String> stack) {
+        List<String> chain = new ArrayList<>(stack.size());
+        stack.descendingIterator().forEachRemaining(chain::add);
+        return chain;
+    }
+
+    static class BeanRecord {
+
+        final String name;
+        final String type;
+        final int index;
+        final List<String> chain;
+        // 同一个bean的各步骤在持有BeanDefinition锁的线程上顺序执行:
+        final long[] nanos = new long[Step.values().length];
+
+        BeanRecord(BeanDefinition def, int index, List<String> chain) {
+            this.name = def.getName();
+            this.type = def.getBeanClass().getName();
+            this.index = index;
+            this.chain = chain;
+        }
+
+        StartupReport.BeanTiming toTiming() {
+            return new StartupReport.BeanTiming(this.name, this.type, Duration.ofNanos(nanos[0]), Duration.ofNanos(nanos[1]),
+                    Duration.ofNanos(nanos[2]), Duration.ofNanos(nanos[3]), this.chain);
+        }
+    }
+
+    @Name("summer.StartupPhase")
+    @Label("Startup Phase")
+    @Category("Summer")
+    @Description("A phase of ApplicationContext startup")
+    static class StartupPhaseEvent extends Event {
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("summer.BeanStartup")
+    @Label("Bean Startup Step")
+    @Category("Summer")
+    @Description("Construct, post process, inject or init of a singleton bean")
+    static class BeanStartupEvent extends Event {
+
+        @Label("Bean Name")
+        String beanName;
+
+        @Label("Bean Class")
+        Class<?> beanClass;
+
+        @Label("Step")
+        String step;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+}
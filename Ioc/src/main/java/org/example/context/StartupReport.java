@@ -0,0 +1,67 @@
+package org.example.context;
+
+import org.example.web.utils.JsonUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 容器启动的耗时统计：每个阶段的耗时，以及每个单例bean的构造、BeanPostProcessor、注入和初始化耗时。
+ *
+ * 构造耗时只包括调用构造方法或工厂方法本身，不包括创建依赖的bean；
+ * chain是触发创建该bean的依赖链，例如[a, b]表示创建a时依赖b，创建b时又依赖了当前bean。
+ *
+ * @param total 启动总耗时
+ * @param phases 按执行顺序排列的阶段耗时
+ * @param beans 按创建顺序排列的bean耗时
+ */
+public record StartupReport(Duration total, Map<String, Duration> phases, List<BeanTiming> beans) {
+
+    public record BeanTiming(String name, String type, Duration construct, Duration postProcess, Duration inject, Duration init,
+                             List<String> chain) {
+
+        public Duration total() {
+            return this.construct.plus(this.postProcess).plus(this.inject).plus(this.init);
+        }
+    }
+
+    /**
+     * 返回总耗时最长的n个bean
+     */
+    public List<BeanTiming> slowest(int n) {
+        return this.beans.stream().sorted(Comparator.comparing(BeanTiming::total).reversed()).limit(n).toList();
+    }
+
+    /**
+     * 输出为JSON，时间单位为毫秒
+     */
+    public String toJson() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        this.phases.forEach((name, duration) -> phases.put(name, millis(duration)));
+        List<Map<String, Object>> beans = new ArrayList<>(this.beans.size());
+        for (BeanTiming bean : this.beans) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", bean.name());
+            map.put("type", bean.type());
+            map.put("construct", millis(bean.construct()));
+            map.put("postProcess", millis(bean.postProcess()));
+            map.put("inject", millis(bean.inject()));
+            map.put("init", millis(bean.init()));
+            map.put("chain", bean.chain());
+            beans.add(map);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("total", millis(this.total));
+        json.put("phases", phases);
+        json.put("beans", beans);
+        return JsonUtils.writeJson(json);
+    }
+
+    static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
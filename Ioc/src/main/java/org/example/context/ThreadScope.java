@@ -0,0 +1,122 @@
+package org.example.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 线程作用域：同一个线程内复用同一个实例。
+ *
+ * 线程可以调用clear()提前销毁自己的实例，容器关闭时调用destroyAll()销毁所有线程创建的实例。
+ * 已经结束的线程没有调用clear()时，它的实例在下一个新线程第一次使用线程作用域时销毁，
+ * 每个请求一个线程或使用虚拟线程时，实例不会一直保留到容器关闭。
+ */
+public class ThreadScope implements BeanScope {
+
+    static final Logger logger = LoggerFactory.getLogger(ThreadScope.class);
+
+    // 所有线程的实例，容器关闭时其他线程的实例也要销毁:
+    private final Set<Instances> all = ConcurrentHashMap.newKeySet();
+
+    private final ThreadLocal<Instances> instances = ThreadLocal.withInitial(() -> {
+        destroyDeadThreads();
+        Instances created = new Instances(Thread.currentThread());
+        this.all.add(created);
+        return created;
+    });
+
+    @Override
+    public Object get(BeanDefinition def, Supplier<Object> creator) {
+        Instances current = this.instances.get();
+        Object instance = current.get(def);
+        if (instance == null) {
+            // 创建时可能获取其他线程作用域的bean，不能持有锁:
+            instance = creator.get();
+            current.put(def, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * 清除当前线程的实例，并调用它们的destroy方法
+     */
+    public void clear() {
+        Instances current = this.instances.get();
+        this.instances.remove();
+        this.all.remove(current);
+        current.destroy();
+    }
+
+    /**
+     * 销毁所有线程创建的实例，由容器关闭时调用
+     */
+    void destroyAll() {
+        for (Instances created : this.all) {
+            if (this.all.remove(created)) {
+                created.destroy();
+            }
+        }
+    }
+
+    /**
+     * 销毁已经结束的线程的实例
+     */
+    void destroyDeadThreads() {
+        for (Instances created : this.all) {
+            if (!created.isAlive() && this.all.remove(created)) {
+                created.destroy();
+            }
+        }
+    }
+
+    /**
+     * 一个线程的实例，容器关闭时由其他线程读取，访问时加锁
+     */
+    static class Instances {
+
+        // 弱引用所属线程，只用来判断线程是否结束:
+        final WeakReference<Thread> owner;
+
+        final Map<BeanDefinition, Object> map = new IdentityHashMap<>();
+
+        Instances(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean isAlive() {
+            Thread thread = this.owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        synchronized Object get(BeanDefinition def) {
+            return this.map.get(def);
+        }
+
+        synchronized void put(BeanDefinition def, Object instance) {
+            this.map.put(def, instance);
+        }
+
+        void destroy() {
+            List<Map.Entry<BeanDefinition, Object>> entries;
+            synchronized (this) {
+                entries = new ArrayList<>(this.map.entrySet());
+                this.map.clear();
+            }
+            for (Map.Entry<BeanDefinition, Object> entry : entries) {
+                try {
+                    entry.getKey().invokeDestroyMethod(entry.getValue());
+                } catch (RuntimeException e) {
+                    logger.warn("destroy thread scoped bean '{}' failed.", entry.getKey().getName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.index;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期生成的组件索引，对应classpath下的META-INF/summer.components文件，
+ * 每行一个@Component候选类的类名，由{@link ComponentIndexProcessor}生成。
+ *
+ * 带有索引的目录或jar直接读取索引，不再遍历；没有索引的目录或jar仍然需要扫描。
+ */
+public class ComponentIndex {
+
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/summer.components";
+
+    static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+    final Set<String> candidates;
+
+    // 带有索引文件的目录或jar，格式与ResourceResolver的扫描根一致，如file:/app/classes/、jar:file:/app/lib/a.jar!/:
+    final Set<String> roots;
+
+    ComponentIndex(Set<String> candidates) {
+        this(candidates, Set.of());
+    }
+
+    ComponentIndex(Set<String> candidates, Set<String> roots) {
+        this.candidates = Collections.unmodifiableSet(candidates);
+        this.roots = Collections.unmodifiableSet(roots);
+    }
+
+    /**
+     * 加载classloader下所有的索引文件，一个都没有则返回null
+     * @param classLoader
+     * @return
+     */
+    @Nullable
+    public static ComponentIndex load(ClassLoader classLoader) {
+        Set<String> candidates = new TreeSet<>();
+        Set<String> roots = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                logger.debug("load component index: {}", url);
+                try (InputStream input = url.openStream()) {
+                    readIndex(input, candidates);
+                }
+                String location = URLDecoder.decode(url.toString(), StandardCharsets.UTF_8);
+                roots.add(location.substring(0, location.length() - COMPONENTS_RESOURCE_LOCATION.length()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return roots.isEmpty() ? null : new ComponentIndex(candidates, roots);
+    }
+
+    static void readIndex(InputStream input, Set<String> candidates) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                candidates.add(line);
+            }
+        }
+    }
+
+    /**
+     * 返回指定包及其子包下的候选类名
+     * @param basePackage
+     * @return
+     */
+    public Set<String> getCandidateTypes(String basePackage) {
+        if (basePackage.isEmpty()) {
+            return this.candidates;
+        }
+        String prefix = basePackage + ".";
+        Set<String> result = new TreeSet<>();
+        for (String className : this.candidates) {
+            if (className.startsWith(prefix)) {
+                result.add(className);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 扫描根是否带有索引，带有索引的扫描根不需要再遍历
+     * @param root 扫描根，如file:/app/classes/
+     * @return
+     */
+    public boolean isIndexed(String root) {
+        return this.roots.contains(root);
+    }
+
+    public int size() {
+        return this.candidates.size();
+    }
+}
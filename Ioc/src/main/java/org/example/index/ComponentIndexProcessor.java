@@ -0,0 +1,149 @@
+package org.example.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期扫描标注了@Component（包括@Configuration、@Controller等组合注解）的类，
+ * 生成META-INF/summer.components索引。
+ *
+ * 增量编译时只处理部分类，已有的索引会被合并：保留未重新编译的组件，
+ * 去掉本次重新编译后不再是组件的类和已经不存在的类。
+ *
+ * 该处理器是可选的，不会自动注册，需要在编译时显式启用，例如maven：
+ * <pre>
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;org.example.index.ComponentIndexProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final String COMPONENT_ANNOTATION = "org.example.annotation.Component";
+
+    final Set<String> components = new TreeSet<>();
+
+    // 本次编译处理过的所有类，包括不是组件的类:
+    final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    void collect(Element element) {
+        if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+            this.processed.add(binaryName);
+            if (isComponent(element, new HashSet<>())) {
+                this.components.add(binaryName);
+            }
+        }
+        // 静态内部类和内部record也可以是组件:
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.RECORD
+                    || enclosed.getKind() == ElementKind.CLASS && enclosed.getModifiers().contains(Modifier.STATIC)) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    boolean isComponent(Element element, Set<String> visited) {
+        return isAnnotated(element, COMPONENT_ANNOTATION, visited);
+    }
+
+    /**
+     * 递归查找元素上的注解，判断是否直接或间接标注了指定注解
+     */
+    public static boolean isAnnotated(Element element, String annotationName, Set<String> visited) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String name = annoType.getQualifiedName().toString();
+            if (annotationName.equals(name)) {
+                return true;
+            }
+            if (name.startsWith("java.lang.annotation.") || !visited.add(name)) {
+                continue;
+            }
+            if (isAnnotated(annoType, annotationName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void writeIndex() {
+        Set<String> existing = readExistingIndex();
+        Set<String> merged = new TreeSet<>(this.components);
+        for (String className : existing) {
+            if (!this.processed.contains(className) && exists(className)) {
+                merged.add(className);
+            }
+        }
+        if (merged.isEmpty() && existing.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String className : merged) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write component index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取输出目录中上次编译生成的索引，不存在时返回空集合
+     */
+    Set<String> readExistingIndex() {
+        Set<String> existing = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+            try (InputStream input = file.openInputStream()) {
+                ComponentIndex.readIndex(input, existing);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 第一次编译，还没有索引:
+        }
+        return existing;
+    }
+
+    /**
+     * 类是否仍然存在，索引中保存的是binary name，内部类用$分隔
+     */
+    boolean exists(String className) {
+        return processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null;
+    }
+}
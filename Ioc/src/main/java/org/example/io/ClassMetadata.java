@@ -0,0 +1,34 @@
+package org.example.io;
+
+import java.util.List;
+
+/**
+ * 从class文件字节码中读取的类元信息，不需要加载类。
+ *
+ * @param className       类名，如org.example.Foo
+ * @param access          access_flags
+ * @param annotationTypes 类上直接标注的运行期注解类名
+ */
+public record ClassMetadata(String className, int access, List<String> annotationTypes) {
+
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ABSTRACT = 0x0400;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (access & ACC_ABSTRACT) != 0;
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.io;
+
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 直接解析class文件的常量池和RuntimeVisibleAnnotations属性，判断一个类是否标注了指定注解（包括组合注解），
+ * 扫描时用它过滤掉非组件类，避免对每个类都调用Class.forName()加载并初始化。
+ *
+ * class文件格式参考:
+ *
+ * https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html
+ */
+public class ClassMetadataReader {
+
+    final ClassLoader classLoader;
+
+    // 注解类名 -> 是否直接或间接标注了目标注解:
+    final Map<String, Boolean> metaAnnotationCache = new ConcurrentHashMap<>();
+
+    public ClassMetadataReader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 类是否为非接口、非注解、非枚举，并且直接或间接标注了指定注解
+     * @param resourceName 如org/example/Foo.class
+     * @param annotationName 如org.example.annotation.Component
+     * @return
+     */
+    public boolean isCandidate(String resourceName, String annotationName) {
+        return isCandidate(read(resourceName), annotationName);
+    }
+
+    /**
+     * 扫描时已经读取了class文件的内容，直接解析，不再通过ClassLoader查找
+     * @param classFile class文件的内容
+     * @param annotationName 如org.example.annotation.Component
+     * @return
+     */
+    public boolean isCandidate(byte[] classFile, String annotationName) {
+        return isCandidate(read(classFile), annotationName);
+    }
+
+    boolean isCandidate(ClassMetadata metadata, String annotationName) {
+        if (metadata == null || metadata.isInterface() || metadata.isAnnotation() || metadata.isEnum()) {
+            return false;
+        }
+        return hasAnnotation(metadata, annotationName);
+    }
+
+    public boolean hasAnnotation(ClassMetadata metadata, String annotationName) {
+        for (String annoType : metadata.annotationTypes()) {
+            if (annoType.equals(annotationName) || isMetaAnnotated(annoType, annotationName, new HashSet<>())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isMetaAnnotated(String annoType, String annotationName, Set<String> visited) {
+        if (annoType.startsWith("java.") || !visited.add(annoType)) {
+            return false;
+        }
+        String key = annoType + "@" + annotationName;
+        Boolean cached = this.metaAnnotationCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean found = false;
+        ClassMetadata metadata = read(annoType.replace('.', '/') + ".class");
+        if (metadata != null) {
+            for (String t : metadata.annotationTypes()) {
+                if (t.equals(annotationName) || isMetaAnnotated(t, annotationName, visited)) {
+                    found = true;
+                    break;
+                }
+            }
+        }
+        this.metaAnnotationCache.put(key, found);
+        return found;
+    }
+
+    @Nullable
+    public ClassMetadata read(String resourceName) {
+        try (InputStream input = this.classLoader.getResourceAsStream(resourceName)) {
+            if (input == null) {
+                return null;
+            }
+            return read(input.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ClassMetadata read(byte[] classFile) {
+        try {
+            return parse(new DataInputStream(new ByteArrayInputStream(classFile)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ClassMetadata parse(DataInputStream in) throws IOException {
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file.");
+        }
+        in.readUnsignedShort(); // minor_version
+        in.readUnsignedShort(); // major_version
+
+        // 常量池只保留Utf8和Class两种常量:
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classIndex[i] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.skipBytes(2);
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {
+                    // long和double占两个位置:
+                    in.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Invalid constant pool tag: " + tag);
+            }
+        }
+
+        int access = in.readUnsignedShort();
+        String className = utf8[classIndex[in.readUnsignedShort()]].replace('/', '.');
+        in.readUnsignedShort(); // super_class
+        in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+
+        // 跳过fields和methods:
+        for (int n = 0; n < 2; n++) {
+            int memberCount = in.readUnsignedShort();
+            for (int i = 0; i < memberCount; i++) {
+                in.skipBytes(6);
+                skipAttributes(in);
+            }
+        }
+
+        List<String> annotationTypes = new ArrayList<>();
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                int annotationCount = in.readUnsignedShort();
+                for (int j = 0; j < annotationCount; j++) {
+                    annotationTypes.add(readAnnotation(in, utf8));
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+        return new ClassMetadata(className, access, annotationTypes);
+    }
+
+    static void skipAttributes(DataInputStream in) throws IOException {
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+
+    /**
+     * 读取一个annotation结构，返回注解类名
+     */
+    static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+        // Lorg/example/annotation/Component; -> org.example.annotation.Component
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e' -> in.skipBytes(4);
+            case '@' -> readAnnotation(in, utf8);
+            case '[' -> {
+                int n = in.readUnsignedShort();
+                for (int i = 0; i < n; i++) {
+                    skipElementValue(in, utf8);
+                }
+            }
+            default -> in.skipBytes(2);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * 把前缀下的一组属性绑定到record或POJO上，支持嵌套对象、List、Set、数组和Map：
+ *
+ * <pre>
+ * pool.max-size=16
+ * pool.servers[0].host=a.example.com
+ * pool.servers[1].host=b.example.com
+ * pool.tags=fast,internal
+ * </pre>
+ *
+ * 属性名不区分大小写并忽略-和_，max-size、max_size和maxSize都绑定到maxSize。
+ * 前缀下的属性先整理为一棵树，每个节点只访问一次；目标类的构造方法、setter和字段解析一次后按类缓存。
+ */
+class PropertyBinder {
+
+    static final Logger logger = LoggerFactory.getLogger(PropertyBinder.class);
+
+    static final ClassValue<BindMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected BindMetadata computeValue(Class<?> type) {
+            return BindMetadata.of(type);
+        }
+    };
+
+    final PropertySnapshot snapshot;
+
+    PropertyBinder(PropertySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    <T> T bind(String prefix, Class<T> type) {
+        return type.cast(bindObject(type, Node.of(this.snapshot.getProperties(prefix)), prefix));
+    }
+
+    /**
+     * 绑定到已有的POJO实例，没有配置的属性保持原来的值
+     * @param prefix
+     * @param target
+     */
+    void bindTo(String prefix, Object target) {
+        BindMetadata metadata = METADATA.get(target.getClass());
+        if (metadata.record) {
+            throw new IllegalArgumentException("Cannot bind properties to an existing record: " + target.getClass().getName());
+        }
+        bindProperties(metadata, target, Node.of(this.snapshot.getProperties(prefix)), prefix);
+    }
+
+    Object bindValue(Class<?> type, Type genericType, Node node, String path) {
+        if (isScalar(type)) {
+            if (node.value == null) {
+                throw new IllegalArgumentException(String.format("Property '%s' must be a single value of %s.", path, type.getName()));
+            }
+            return convert(type, node.value, path);
+        }
+        if (type.isArray()) {
+            List<Object> list = bindList(type.getComponentType(), type.getComponentType(), node, path);
+            Object array = Array.newInstance(type.getComponentType(), list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Array.set(array, i, list.get(i));
+            }
+            return array;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Type elementType = typeArgument(genericType, 0);
+            List<Object> list = bindList(rawClass(elementType), elementType, node, path);
+            return Set.class.isAssignableFrom(type) ? new LinkedHashSet<>(list) : list;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            Type valueType = typeArgument(genericType, 1);
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, Node> e : node.children.entrySet()) {
+                map.put(e.getKey(), bindValue(rawClass(valueType), valueType, e.getValue(), path + "." + e.getKey()));
+            }
+            return map;
+        }
+        return bindObject(type, node, path);
+    }
+
+    List<Object> bindList(Class<?> elementType, Type genericElementType, Node node, String path) {
+        List<Object> list = new ArrayList<>();
+        if (node.children.isEmpty() && node.value != null) {
+            // 逗号分隔的写法，如tags=fast,internal:
+            for (String s : node.value.split(",")) {
+                list.add(convert(elementType, s.strip(), path));
+            }
+            return list;
+        }
+        List<Map.Entry<String, Node>> entries = new ArrayList<>(node.children.entrySet());
+        for (Map.Entry<String, Node> e : entries) {
+            if (!isIndex(e.getKey())) {
+                throw new IllegalArgumentException(String.format("Property '%s.%s' is not a list element.", path, e.getKey()));
+            }
+        }
+        // [10]排在[2]之后:
+        entries.sort(Comparator.comparingInt(e -> Integer.parseInt(e.getKey())));
+        for (Map.Entry<String, Node> e : entries) {
+            list.add(bindValue(elementType, genericElementType, e.getValue(), path + "[" + e.getKey() + "]"));
+        }
+        return list;
+    }
+
+    Object bindObject(Class<?> type, Node node, String path) {
+        BindMetadata metadata = METADATA.get(type);
+        try {
+            if (metadata.record) {
+                Object[] args = new Object[metadata.properties.length];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = defaultValue(metadata.properties[i].type());
+                }
+                for (Map.Entry<String, Node> e : node.children.entrySet()) {
+                    BindProperty property = metadata.find(e.getKey());
+                    if (property == null) {
+                        logger.debug("ignore unknown property {}.{} for {}.", path, e.getKey(), type.getName());
+                        continue;
+                    }
+                    args[property.index()] = bindValue(property.type(), property.genericType(), e.getValue(), path + "." + e.getKey());
+                }
+                return (Object) metadata.constructor.invokeExact(args);
+            }
+            Object instance = (Object) metadata.constructor.invokeExact(new Object[0]);
+            bindProperties(metadata, instance, node, path);
+            return instance;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(String.format("Cannot bind properties '%s' to %s.", path, type.getName()), t);
+        }
+    }
+
+    void bindProperties(BindMetadata metadata, Object instance, Node node, String path) {
+        for (Map.Entry<String, Node> e : node.children.entrySet()) {
+            BindProperty property = metadata.find(e.getKey());
+            if (property == null) {
+                logger.debug("ignore unknown property {}.{} for {}.", path, e.getKey(), metadata.type.getName());
+                continue;
+            }
+            Object value = bindValue(property.type(), property.genericType(), e.getValue(), path + "." + e.getKey());
+            try {
+                property.setter().invokeExact(instance, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable t) {
+                throw new RuntimeException(String.format("Cannot set property '%s.%s'.", path, e.getKey()), t);
+            }
+        }
+    }
+
+    boolean isScalar(Class<?> type) {
+        return type.isEnum() || this.snapshot.converters.containsKey(type);
+    }
+
+    Object convert(Class<?> type, String value, String path) {
+        try {
+            if (type.isEnum()) {
+                for (Object constant : type.getEnumConstants()) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(value.replace('-', '_'))) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+            }
+            return this.snapshot.convert(type, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Cannot bind property '%s' with value '%s' to %s.", path, value, type.getName()), e);
+        }
+    }
+
+    static boolean isIndex(String key) {
+        if (key.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Type typeArgument(Type genericType, int index) {
+        if (genericType instanceof ParameterizedType pt) {
+            return pt.getActualTypeArguments()[index];
+        }
+        return String.class;
+    }
+
+    static Class<?> rawClass(Type type) {
+        if (type instanceof Class<?> c) {
+            return c;
+        }
+        if (type instanceof ParameterizedType pt) {
+            return (Class<?>) pt.getRawType();
+        }
+        throw new IllegalArgumentException("Unsupported property type: " + type);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    /**
+     * 属性名统一为小写并去掉-和_
+     */
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '-' && c != '_') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 前缀下的属性树，servers[0].host拆分为servers、0、host三层
+     */
+    static final class Node {
+
+        String value;
+
+        final Map<String, Node> children = new LinkedHashMap<>();
+
+        static Node of(Map<String, String> properties) {
+            Node root = new Node();
+            for (Map.Entry<String, String> e : properties.entrySet()) {
+                Node node = root;
+                for (String segment : split(e.getKey())) {
+                    node = node.children.computeIfAbsent(segment, k -> new Node());
+                }
+                node.value = e.getValue();
+            }
+            return root;
+        }
+
+        static List<String> split(String key) {
+            List<String> segments = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c == '.' || c == '[' || c == ']') {
+                    if (i > start) {
+                        segments.add(key.substring(start, i));
+                    }
+                    start = i + 1;
+                }
+            }
+            if (start < key.length()) {
+                segments.add(key.substring(start));
+            }
+            return segments;
+        }
+    }
+
+    record BindProperty(String name, Class<?> type, Type genericType, int index, MethodHandle setter) {
+    }
+
+    /**
+     * 目标类的绑定方式：record使用规范构造方法；POJO使用无参构造方法，再通过setter或字段赋值
+     */
+    static final class BindMetadata {
+
+        final Class<?> type;
+
+        final boolean record;
+
+        // 参数为Object[]，返回Object:
+        final MethodHandle constructor;
+
+        final BindProperty[] properties;
+
+        final Map<String, BindProperty> byName = new HashMap<>();
+
+        BindMetadata(Class<?> type, boolean record, MethodHandle constructor, BindProperty[] properties) {
+            this.type = type;
+            this.record = record;
+            this.constructor = constructor;
+            this.properties = properties;
+            for (BindProperty property : properties) {
+                this.byName.putIfAbsent(normalize(property.name()), property);
+            }
+        }
+
+        BindProperty find(String key) {
+            return this.byName.get(normalize(key));
+        }
+
+        static BindMetadata of(Class<?> type) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType spreadType = MethodType.methodType(Object.class, Object[].class);
+            try {
+                if (type.isRecord()) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    Class<?>[] types = new Class<?>[components.length];
+                    BindProperty[] properties = new BindProperty[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        types[i] = components[i].getType();
+                        properties[i] = new BindProperty(components[i].getName(), components[i].getType(), components[i].getGenericType(), i, null);
+                    }
+                    Constructor<?> ctor = type.getDeclaredConstructor(types);
+                    ctor.setAccessible(true);
+                    MethodHandle mh = lookup.unreflectConstructor(ctor).asSpreader(Object[].class, types.length).asType(spreadType);
+                    return new BindMetadata(type, true, mh, properties);
+                }
+                if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                    throw new IllegalArgumentException("Cannot bind properties to abstract type: " + type.getName());
+                }
+                Constructor<?> ctor = type.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                MethodHandle mh = MethodHandles.dropArguments(lookup.unreflectConstructor(ctor), 0, Object[].class).asType(spreadType);
+                return new BindMetadata(type, false, mh, findProperties(type, lookup));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Cannot bind properties to " + type.getName() + " without a no-arg constructor.", e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // 优先使用public setter，没有setter的非static、非final字段直接赋值:
+        static BindProperty[] findProperties(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+            Map<String, BindProperty> properties = new LinkedHashMap<>();
+            for (Method m : type.getMethods()) {
+                if (!Modifier.isStatic(m.getModifiers()) && m.getParameterCount() == 1 && m.getName().length() > 3 && m.getName().startsWith("set")) {
+                    String name = Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4);
+                    MethodHandle mh = lookup.unreflect(m).asType(setterType);
+                    properties.putIfAbsent(normalize(name),
+                            new BindProperty(name, m.getParameterTypes()[0], m.getGenericParameterTypes()[0], properties.size(), mh));
+                }
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    int mod = f.getModifiers();
+                    if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || f.isSynthetic() || properties.containsKey(normalize(f.getName()))) {
+                        continue;
+                    }
+                    f.setAccessible(true);
+                    MethodHandle mh = lookup.unreflectSetter(f).asType(setterType);
+                    properties.put(normalize(f.getName()), new BindProperty(f.getName(), f.getType(), f.getGenericType(), properties.size(), mh));
+                }
+            }
+            return properties.values().toArray(BindProperty[]::new);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * 用WatchService监视配置文件所在目录，文件创建或修改后调用reload。
+ *
+ * 编辑器保存文件时通常产生多个事件，收到事件后等待DEBOUNCE_MILLIS并丢弃期间的其他事件，只加载一次。
+ * reload抛出异常时（如文件只写了一半）记录日志并继续监视，下一次修改时再加载。
+ */
+public class PropertyFileWatcher implements Closeable {
+
+    static final Logger logger = LoggerFactory.getLogger(PropertyFileWatcher.class);
+
+    static final long DEBOUNCE_MILLIS = 100;
+
+    final Path file;
+
+    final Runnable reload;
+
+    final WatchService watchService;
+
+    final Thread thread;
+
+    PropertyFileWatcher(Path file, Runnable reload) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        this.reload = reload;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "summer-config-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        logger.info("watch config file: {}", this.file);
+    }
+
+    void run() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                boolean changed = pollChanged(key);
+                if (changed) {
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    WatchKey more;
+                    while ((more = this.watchService.poll()) != null) {
+                        pollChanged(more);
+                    }
+                    try {
+                        this.reload.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("failed to reload config file {}, keep current properties.", this.file, e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("stop watching config file: {}", this.file);
+        }
+    }
+
+    boolean pollChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // OVERFLOW表示丢失了事件，无法确定文件是否修改过:
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || event.context() instanceof Path name && name.equals(this.file.getFileName())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+        this.thread.interrupt();
+    }
+}
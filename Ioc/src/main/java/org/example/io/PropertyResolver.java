@@ -4,9 +4,14 @@ import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @Author pw7563
@@ -17,23 +22,17 @@ public class PropertyResolver {
 
     Logger logger = LoggerFactory.getLogger(getClass());
 
-    Map<String, String> properties = new HashMap<>();
-
     Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
 
+    // 当前的属性快照，重新加载时整体替换:
+    volatile PropertySnapshot snapshot;
+
+    final List<Consumer<Set<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    // watch()创建的监视器，由closeWatchers()统一关闭:
+    final List<PropertyFileWatcher> watchers = new CopyOnWriteArrayList<>();
+
     public PropertyResolver(Properties props) {
-        this.properties.putAll(System.getenv());
-        Set<String> names = props.stringPropertyNames();
-        for (String name : names) {
-            this.properties.put(name,props.getProperty(name));
-        }
-        if(logger.isDebugEnabled()){
-            List<String> keys = new ArrayList<>(this.properties.keySet());
-            Collections.sort(keys);
-            for(String key:keys){
-                logger.debug("property:{},value:{}",key,this.properties.get(key));
-            }
-        }
 
         // register converters:
         converters.put(String.class, s -> s);
@@ -64,62 +63,133 @@ public class PropertyResolver {
         converters.put(ZonedDateTime.class, s -> ZonedDateTime.parse(s));
         converters.put(Duration.class, s -> Duration.parse(s));
         converters.put(ZoneId.class, s -> ZoneId.of(s));
+
+        this.snapshot = new PropertySnapshot(loadProperties(props), this.converters);
     }
 
-    public boolean containsProperty(String key){
-        return this.properties.containsKey(key);
+    Map<String, String> loadProperties(Properties props) {
+        Map<String, String> properties = new HashMap<>(System.getenv());
+        Set<String> names = props.stringPropertyNames();
+        for (String name : names) {
+            properties.put(name,props.getProperty(name));
+        }
+        if(logger.isDebugEnabled()){
+            List<String> keys = new ArrayList<>(properties.keySet());
+            Collections.sort(keys);
+            for(String key:keys){
+                logger.debug("property:{},value:{}",key,properties.get(key));
+            }
+        }
+        return properties;
     }
 
-    @Nullable
-    public <T> T getProperty(String key, Class<T> targetType) {
-        String value = getProperty(key);
-        if (value == null) {
-            return null;
+    /**
+     * 用新的属性整体替换当前的快照，原来的属性（环境变量除外）全部被替换；
+     * 替换是原子的，读取方要么看到旧的快照，要么看到新的快照。解析后的值有变化时通知监听器
+     * @param props
+     */
+    public void reload(Properties props) {
+        PropertySnapshot previous = this.snapshot;
+        PropertySnapshot current = new PropertySnapshot(loadProperties(props), this.converters);
+        Set<String> changed = current.diff(previous);
+        if (changed.isEmpty()) {
+            logger.debug("properties reloaded without changes.");
+            return;
         }
-        return convert(targetType, value);
+        this.snapshot = current;
+        logger.info("properties reloaded, changed keys: {}", changed);
+        for (Consumer<Set<String>> listener : this.listeners) {
+            try {
+                listener.accept(changed);
+            } catch (RuntimeException e) {
+                logger.warn("property change listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * 监听属性变化，参数是解析后的值发生变化的key
+     * @param listener
+     */
+    public void addChangeListener(Consumer<Set<String>> listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<Set<String>> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * 监视配置文件，文件修改后用loader重新加载并替换属性，加载失败时保留原来的属性
+     * @param file
+     * @param loader
+     * @return 关闭后停止监视，也可以由closeWatchers()关闭
+     * @throws IOException
+     */
+    public PropertyFileWatcher watch(Path file, Function<Path, Properties> loader) throws IOException {
+        PropertyFileWatcher watcher = new PropertyFileWatcher(file, () -> reload(loader.apply(file)));
+        this.watchers.add(watcher);
+        return watcher;
     }
 
-    <T> T convert(Class<?> clazz, String value) {
-        Function<String, Object> fn = this.converters.get(clazz);
-        if (fn == null) {
-            throw new IllegalArgumentException("Unsupported value type: " + clazz.getName());
+    /**
+     * 关闭watch()创建的所有监视器，应用停止时调用
+     */
+    public void closeWatchers() {
+        for (PropertyFileWatcher watcher : this.watchers) {
+            this.watchers.remove(watcher);
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                logger.warn("failed to close watcher of config file {}.", watcher.file, e);
+            }
         }
-        return (T) fn.apply(value);
     }
 
     /**
-     * 递归调用
+     * 把prefix下的属性绑定到record或POJO上，如prefix为pool时，pool.max-size绑定到maxSize
+     * @param prefix
+     * @param type
+     * @return
+     * @param <T>
+     */
+    public <T> T bind(String prefix, Class<T> type) {
+        return new PropertyBinder(this.snapshot).bind(prefix, type);
+    }
+
+    /**
+     * 把prefix下的属性绑定到已有的POJO实例上，没有配置的属性保持原来的值
+     * @param prefix
+     * @param target
+     */
+    public void bindTo(String prefix, Object target) {
+        new PropertyBinder(this.snapshot).bindTo(prefix, target);
+    }
+
+    public boolean containsProperty(String key){
+        return this.snapshot.containsProperty(key);
+    }
+
+    /**
+     * 类型转换的结果按(类型, key)缓存，同一个属性重复读取时不再转换
      * @param key
+     * @param targetType
      * @return
+     * @param <T>
      */
     @Nullable
-    public String getProperty(String key){
-        PropertyExpr keyExpr = parsePropertyExpr(key);
-        if (keyExpr != null){
-            if (keyExpr.defaultValue() != null){
-                return getProperty(keyExpr.key(),keyExpr.defaultValue());
-            } else{
-                return getRequiredProperty(keyExpr.key());
-            }
-        }
-        String value = this.properties.get(key);
-        if(value != null){
-            return parseValue(value);
-        }
-        return value;
+    public <T> T getProperty(String key, Class<T> targetType) {
+        return this.snapshot.getProperty(key, targetType);
     }
 
-    String parseValue(String value){
-        PropertyExpr expr = parsePropertyExpr(value);
-        if(expr == null){
-            return value;
-        }
-        if(expr.defaultValue() != null){
-            return getProperty(expr.key(), expr.defaultValue());
-        }else{
-            return getRequiredProperty(expr.key());
-        }
-
+    /**
+     * 读取属性，key可以是普通的key，也可以是包含${key:defaultValue}的表达式
+     * @param key
+     * @return
+     */
+    @Nullable
+    public String getProperty(String key){
+        return this.snapshot.getProperty(key);
     }
 
     public String getProperty(String key, String defaultValue){
@@ -133,42 +203,20 @@ public class PropertyResolver {
     }
 
     public <T> T getRequiredProperty(String key, Class<T> targetType){
-        T value = (T) getProperty(key);
+        T value = getProperty(key, targetType);
         return Objects.requireNonNull(value,"Property '" + key + "' is required");
     }
 
     /**
-     * ${key:defaultValue}
-     * 解析属性表达式，解析出key和默认值
+     * 返回一个总是读取当前快照的句柄，配置重新加载后不需要重新获取；
+     * 创建时检查属性存在并且可以转换，每次get()只是无锁读取当前快照中缓存的值
      * @param key
+     * @param targetType
      * @return
+     * @param <T>
      */
-    PropertyExpr parsePropertyExpr(String key){
-        if(key.startsWith("${") && key.endsWith("}")){
-            int n = key.indexOf(":");
-            if(n == -1){
-                // 说明没有默认值
-                String k = notEmpty(key.substring(2,key.length()-1));
-                return new PropertyExpr(k,null);
-            } else{
-                // 有默认值的情况
-                String k = notEmpty(key.substring(2,n));
-                return new PropertyExpr(k,key.substring(n+1,key.length()-1));
-            }
-        }
-        return null;
-    }
-
-    String notEmpty(String key){
-        if(key.isEmpty()){
-            throw new IllegalArgumentException("key is empty, key:" + key);
-        }
-        return key;
+    public <T> Supplier<T> getPropertySupplier(String key, Class<T> targetType) {
+        getRequiredProperty(key, targetType);
+        return () -> getRequiredProperty(key, targetType);
     }
-
-
-
 }
-record PropertyExpr(String key, String defaultValue) {
-
-}
\ No newline at end of file
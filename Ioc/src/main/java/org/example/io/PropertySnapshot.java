@@ -0,0 +1,173 @@
+package org.example.io;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 某一时刻的全部属性：原始值、解析占位符后的值，以及按需填充的表达式和类型转换缓存。
+ *
+ * 原始值和解析后的值在构造后不再修改，缓存只是这些值的派生结果，因此可以被多个线程无锁读取，
+ * 重新加载配置时整体替换为新的快照。
+ */
+class PropertySnapshot {
+
+    static final Logger logger = LoggerFactory.getLogger(PropertySnapshot.class);
+
+    final Map<String, String> properties;
+
+    final Map<Class<?>, Function<String, Object>> converters;
+
+    // 解析占位符后的属性值:
+    final Map<String, String> resolved;
+
+    // 引用了不存在的属性或循环引用的key，读取时抛出异常:
+    final Set<String> unresolved;
+
+    // 表达式（如@Value("${key:default}")）解析后的值:
+    final Map<String, String> expressions = new ConcurrentHashMap<>();
+
+    // 类型转换后的值，按目标类型分组:
+    final Map<Class<?>, Map<String, Object>> converted = new ConcurrentHashMap<>();
+
+    // 按key排序的解析后的值，按前缀查找时才创建:
+    volatile NavigableMap<String, String> sorted;
+
+    PropertySnapshot(Map<String, String> properties, Map<Class<?>, Function<String, Object>> converters) {
+        this.properties = Collections.unmodifiableMap(properties);
+        this.converters = converters;
+        // 解析所有属性值中的占位符:
+        Map<String, String> resolved = new HashMap<>(properties.size() * 2);
+        Set<String> unresolved = new HashSet<>();
+        for (String key : properties.keySet()) {
+            try {
+                resolveStored(key, resolved, new LinkedHashSet<>());
+            } catch (RuntimeException e) {
+                logger.debug("cannot resolve property {}: {}", key, e.getMessage());
+                unresolved.add(key);
+            }
+        }
+        this.resolved = Collections.unmodifiableMap(resolved);
+        this.unresolved = Collections.unmodifiableSet(unresolved);
+    }
+
+    /**
+     * 返回prefix.开头的所有属性，key去掉prefix.，如prefix为pool时pool.servers[0].host返回为servers[0].host
+     * @param prefix
+     * @return
+     */
+    Map<String, String> getProperties(String prefix) {
+        NavigableMap<String, String> sorted = this.sorted;
+        if (sorted == null) {
+            sorted = new TreeMap<>(this.resolved);
+            this.sorted = sorted;
+        }
+        // '/'是'.'的下一个字符:
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : sorted.subMap(prefix + ".", true, prefix + "/", false).entrySet()) {
+            properties.put(e.getKey().substring(prefix.length() + 1), e.getValue());
+        }
+        return properties;
+    }
+
+    boolean containsProperty(String key) {
+        return this.properties.containsKey(key);
+    }
+
+    @Nullable
+    <T> T getProperty(String key, Class<T> targetType) {
+        Map<String, Object> cache = this.converted.get(targetType);
+        if (cache != null) {
+            Object value = cache.get(key);
+            if (value != null) {
+                return (T) value;
+            }
+        }
+        String value = getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        T result = convert(targetType, value);
+        if (result != null) {
+            this.converted.computeIfAbsent(targetType, t -> new ConcurrentHashMap<>()).put(key, result);
+        }
+        return result;
+    }
+
+    <T> T convert(Class<?> clazz, String value) {
+        Function<String, Object> fn = this.converters.get(clazz);
+        if (fn == null) {
+            throw new IllegalArgumentException("Unsupported value type: " + clazz.getName());
+        }
+        return (T) fn.apply(value);
+    }
+
+    @Nullable
+    String getProperty(String key) {
+        String value = this.resolved.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (this.unresolved.contains(key)) {
+            // 重新解析一次，抛出原来的异常:
+            return resolveStored(key, new HashMap<>(this.resolved), new LinkedHashSet<>());
+        }
+        if (key.indexOf("${") < 0) {
+            return null;
+        }
+        // 表达式只编译和解析一次，解析失败时不缓存:
+        value = this.expressions.get(key);
+        if (value == null) {
+            value = PropertyTemplate.compile(key).resolve(this::getProperty);
+            this.expressions.put(key, value);
+        }
+        return value;
+    }
+
+    String resolveStored(String key, Map<String, String> resolved, Set<String> resolving) {
+        String value = resolved.get(key);
+        if (value != null) {
+            return value;
+        }
+        String raw = this.properties.get(key);
+        if (raw == null) {
+            return null;
+        }
+        if (raw.indexOf("${") < 0) {
+            value = raw;
+        } else {
+            if (!resolving.add(key)) {
+                throw new IllegalArgumentException("Circular placeholder reference: " + String.join(" -> ", resolving) + " -> " + key);
+            }
+            value = PropertyTemplate.compile(raw).resolve(k -> resolveStored(k, resolved, resolving));
+            resolving.remove(key);
+        }
+        resolved.put(key, value);
+        return value;
+    }
+
+    /**
+     * 与另一个快照相比，解析后的值发生变化（包括新增和删除）的key
+     * @param other
+     * @return
+     */
+    Set<String> diff(PropertySnapshot other) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, String> e : this.properties.entrySet()) {
+            if (!Objects.equals(this.resolved.get(e.getKey()), other.resolved.get(e.getKey()))
+                    || !Objects.equals(e.getValue(), other.properties.get(e.getKey()))) {
+                changed.add(e.getKey());
+            }
+        }
+        for (String key : other.properties.keySet()) {
+            if (!this.properties.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+}
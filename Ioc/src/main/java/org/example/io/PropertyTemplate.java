@@ -0,0 +1,119 @@
+package org.example.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 编译后的属性值，由普通文本和占位符交替组成，如jdbc:${host}:${port}或${key:${fallback:default}}。
+ *
+ * 编译只在第一次使用时进行一次，之后每次解析只需要按顺序拼接，不再查找和截取字符串。
+ */
+final class PropertyTemplate {
+
+    // literals比placeholders多一个，解析结果为literals[0] + placeholders[0] + literals[1] + ...
+    final String[] literals;
+
+    final PropertyExpr[] placeholders;
+
+    PropertyTemplate(String[] literals, PropertyExpr[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * 编译属性值，没有闭合的${按普通文本处理
+     * @param value
+     * @return
+     */
+    static PropertyTemplate compile(String value) {
+        List<String> literals = new ArrayList<>();
+        List<PropertyExpr> placeholders = new ArrayList<>();
+        int pos = 0;
+        int start;
+        while ((start = value.indexOf("${", pos)) >= 0) {
+            int end = findEnd(value, start + 2);
+            if (end < 0) {
+                break;
+            }
+            literals.add(value.substring(pos, start));
+            String body = value.substring(start + 2, end);
+            int n = body.indexOf(':');
+            if (n == -1) {
+                // 说明没有默认值
+                placeholders.add(new PropertyExpr(notEmpty(body, value), null));
+            } else {
+                // 默认值本身也可以包含占位符:
+                placeholders.add(new PropertyExpr(notEmpty(body.substring(0, n), value), compile(body.substring(n + 1))));
+            }
+            pos = end + 1;
+        }
+        literals.add(value.substring(pos));
+        return new PropertyTemplate(literals.toArray(String[]::new), placeholders.toArray(PropertyExpr[]::new));
+    }
+
+    // 查找与${匹配的}，跳过嵌套的${...}:
+    static int findEnd(String value, int from) {
+        int depth = 1;
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '$' && i + 1 < value.length() && value.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static String notEmpty(String key, String value) {
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("key is empty, value:" + value);
+        }
+        return key;
+    }
+
+    boolean isLiteral() {
+        return this.placeholders.length == 0;
+    }
+
+    /**
+     * 解析占位符，没有默认值且不存在的属性抛出异常
+     * @param lookup 按key查找已解析的属性值
+     * @return
+     */
+    String resolve(Function<String, String> lookup) {
+        if (isLiteral()) {
+            return this.literals[0];
+        }
+        // 整个值就是一个占位符时不需要拼接:
+        if (this.placeholders.length == 1 && this.literals[0].isEmpty() && this.literals[1].isEmpty()) {
+            return resolve(this.placeholders[0], lookup);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.placeholders.length; i++) {
+            sb.append(this.literals[i]).append(resolve(this.placeholders[i], lookup));
+        }
+        return sb.append(this.literals[this.placeholders.length]).toString();
+    }
+
+    static String resolve(PropertyExpr expr, Function<String, String> lookup) {
+        String value = lookup.apply(expr.key());
+        if (value != null) {
+            return value;
+        }
+        if (expr.defaultValue() != null) {
+            return expr.defaultValue().resolve(lookup);
+        }
+        return Objects.requireNonNull(value, "Property '" + expr.key() + "' is required");
+    }
+}
+
+/**
+ * ${key:defaultValue}，没有默认值时defaultValue为null
+ */
+record PropertyExpr(String key, PropertyTemplate defaultValue) {
+
+}
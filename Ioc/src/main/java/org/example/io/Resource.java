@@ -1,10 +1,35 @@
 package org.example.io;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * @Author pw7563
  * @Date 2024/5/29 10:38
  * usage
+ *
+ * file为扫描时找到的文件或jar中的条目，可以直接读取内容，不需要再通过ClassLoader查找
  */
-public record Resource(String path, String name) {
+public record Resource(String path, String name, Path file) {
+
+    public Resource(String path, String name) {
+        this(path, name, null);
+    }
 
+    /**
+     * 读取扫描到的文件内容，jar中的条目只能在扫描过程中（ScanSession关闭前）读取
+     * @return
+     */
+    public byte[] readAllBytes() {
+        if (this.file == null) {
+            throw new IllegalStateException("Resource is not backed by a file: " + this.name);
+        }
+        try {
+            return Files.readAllBytes(this.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
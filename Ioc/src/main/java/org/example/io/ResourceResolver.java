@@ -10,15 +10,17 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A simple classpath scan works both in directory and jar:
@@ -31,16 +33,46 @@ public class ResourceResolver {
 
     String basePackage;
 
+    ScanSession session;
+
+    Predicate<String> rootFilter;
+
     public ResourceResolver(String basePackage) {
+        this(basePackage, null);
+    }
+
+    /**
+     * 多个ResourceResolver共用一个ScanSession时，jar只会打开一次，由调用方负责关闭session
+     * @param basePackage
+     * @param session
+     */
+    public ResourceResolver(String basePackage, ScanSession session) {
+        this(basePackage, session, null);
+    }
+
+    /**
+     * @param basePackage
+     * @param session
+     * @param rootFilter 只扫描返回true的目录或jar，参数为扫描根，如file:/app/classes/、jar:file:/app/lib/a.jar!/，为null时扫描全部
+     */
+    public ResourceResolver(String basePackage, ScanSession session, Predicate<String> rootFilter) {
         this.basePackage = basePackage;
+        this.session = session;
+        this.rootFilter = rootFilter;
     }
 
     public <R> List<R> scan(Function<Resource, R> mapper) {
-        String basePackagePath = this.basePackage.replace(".", "/");
-        String path = basePackagePath;
+        if (this.session == null) {
+            // 没有指定session时，扫描结束后立即释放打开的jar:
+            try (ScanSession session = new ScanSession()) {
+                return new ResourceResolver(this.basePackage, session, this.rootFilter).scan(mapper);
+            }
+        }
         try {
             List<R> collector = new ArrayList<>();
-            scan0(basePackagePath, path, collector, mapper);
+            for (ScanRoot root : findRoots()) {
+                scanRoot(root, collector, mapper);
+            }
             return collector;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -49,22 +81,84 @@ public class ResourceResolver {
         }
     }
 
-    <R> void scan0(String basePackagePath, String path, List<R> collector, Function<Resource, R> mapper) throws IOException, URISyntaxException {
-        logger.debug("scan path: {}", path);
-        Enumeration<URL> en = getContextClassLoader().getResources(path);
+    /**
+     * 在一个大小为parallelism的ForkJoinPool中并行扫描多个包，每个包下的每个目录或jar作为一个任务，
+     * 结果按包的顺序和classpath中的顺序合并，与顺序扫描的结果一致
+     * @param basePackages
+     * @param mapper 会被多个线程同时调用
+     * @param parallelism
+     * @return
+     */
+    public static <R> List<R> scan(List<String> basePackages, Function<Resource, R> mapper, int parallelism) {
+        return scan(basePackages, mapper, parallelism, null);
+    }
+
+    /**
+     * 并行扫描，只扫描rootFilter返回true的目录或jar
+     * @param basePackages
+     * @param mapper 会被多个线程同时调用
+     * @param parallelism
+     * @param rootFilter 为null时扫描全部
+     * @return
+     */
+    public static <R> List<R> scan(List<String> basePackages, Function<Resource, R> mapper, int parallelism, Predicate<String> rootFilter) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (ScanSession session = new ScanSession()) {
+            List<ForkJoinTask<List<R>>> tasks = new ArrayList<>();
+            for (String basePackage : basePackages) {
+                ResourceResolver resolver = new ResourceResolver(basePackage, session, rootFilter);
+                for (ScanRoot root : resolver.findRoots()) {
+                    tasks.add(pool.submit(() -> {
+                        List<R> collector = new ArrayList<>();
+                        resolver.scanRoot(root, collector, mapper);
+                        return collector;
+                    }));
+                }
+            }
+            List<R> results = new ArrayList<>();
+            for (ForkJoinTask<List<R>> task : tasks) {
+                results.addAll(task.join());
+            }
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 查找classpath中包含basePackage的所有目录和jar
+     */
+    List<ScanRoot> findRoots() throws IOException, URISyntaxException {
+        String basePackagePath = this.basePackage.replace(".", "/");
+        logger.debug("scan path: {}", basePackagePath);
+        List<ScanRoot> roots = new ArrayList<>();
+        Enumeration<URL> en = getContextClassLoader().getResources(basePackagePath);
         while (en.hasMoreElements()) {
             URL url = en.nextElement();
             URI uri = url.toURI();
             String uriStr = removeTrailingSlash(uriToString(uri));
             String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
+            if (this.rootFilter != null && !this.rootFilter.test(uriBaseStr)) {
+                logger.debug("skip scan root: {}", uriBaseStr);
+                continue;
+            }
             if (uriBaseStr.startsWith("file:")) {
                 uriBaseStr = uriBaseStr.substring(5);
             }
-            if (uriStr.startsWith("jar:")) {
-                scanFile(true, uriBaseStr, jarUriToPath(basePackagePath, uri), collector, mapper);
-            } else {
-                scanFile(false, uriBaseStr, Paths.get(uri), collector, mapper);
-            }
+            roots.add(new ScanRoot(uriStr.startsWith("jar:"), basePackagePath, uriBaseStr, uri));
+        }
+        return roots;
+    }
+
+    <R> void scanRoot(ScanRoot root, List<R> collector, Function<Resource, R> mapper) throws IOException {
+        if (root.isJar()) {
+            scanFile(true, root.base(), jarUriToPath(root.basePackagePath(), root.uri()), collector, mapper);
+        } else {
+            scanFile(false, root.base(), Paths.get(root.uri()), collector, mapper);
         }
     }
 
@@ -78,26 +172,28 @@ public class ResourceResolver {
     }
 
     Path jarUriToPath(String basePackagePath, URI jarUri) throws IOException {
-        return FileSystems.newFileSystem(jarUri, Map.of()).getPath(basePackagePath);
+        return this.session.getFileSystem(jarUri).getPath(basePackagePath);
     }
 
     <R> void scanFile(boolean isJar, String base, Path root, List<R> collector, Function<Resource, R> mapper) throws IOException {
         String baseDir = removeTrailingSlash(base);
-        Files.walk(root).filter(Files::isRegularFile).forEach(file -> {
-            Resource res = null;
-            if (isJar) {
-                res = new Resource(baseDir, removeLeadingSlash(file.toString()));
-            } else {
-                String path = file.toString();
-                String name = removeLeadingSlash(path.substring(baseDir.length()));
-                res = new Resource("file:" + path, name);
-            }
-            logger.atDebug().log("found resource: {}", res);
-            R r = mapper.apply(res);
-            if (r != null) {
-                collector.add(r);
-            }
-        });
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile).forEach(file -> {
+                Resource res = null;
+                if (isJar) {
+                    res = new Resource(baseDir, removeLeadingSlash(file.toString()), file);
+                } else {
+                    String path = file.toString();
+                    String name = removeLeadingSlash(path.substring(baseDir.length()));
+                    res = new Resource("file:" + path, name, file);
+                }
+                logger.atDebug().log("found resource: {}", res);
+                R r = mapper.apply(res);
+                if (r != null) {
+                    collector.add(r);
+                }
+            });
+        }
     }
 
     String uriToString(URI uri) {
@@ -117,4 +213,7 @@ public class ResourceResolver {
         }
         return s;
     }
+
+    record ScanRoot(boolean isJar, String basePackagePath, String base, URI uri) {
+    }
 }
@@ -0,0 +1,68 @@
+package org.example.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次扫描过程中共享的jar文件系统缓存，同一个jar的中央目录只打开一次，
+ * 多个包、多个线程共用，扫描结束后调用close()统一释放。
+ */
+public class ScanSession implements AutoCloseable {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    // jar:file:/path/to/x.jar -> 本次扫描打开的FileSystem:
+    final Map<URI, FileSystem> fileSystems = new ConcurrentHashMap<>();
+
+    /**
+     * 根据jar:file:/path/to/x.jar!/org/example这样的uri获取jar的FileSystem
+     * @param jarUri
+     * @return
+     */
+    public FileSystem getFileSystem(URI jarUri) {
+        String s = jarUri.toString();
+        int n = s.indexOf("!/");
+        URI key = n == -1 ? jarUri : URI.create(s.substring(0, n));
+        FileSystem fs = this.fileSystems.computeIfAbsent(key, uri -> {
+            try {
+                logger.debug("open jar file system: {}", uri);
+                return FileSystems.newFileSystem(uri, Map.of());
+            } catch (FileSystemAlreadyExistsException e) {
+                // 已经被其他代码打开，直接使用，但不由本次扫描关闭:
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return fs != null ? fs : FileSystems.getFileSystem(key);
+    }
+
+    int openFileSystemCount() {
+        return this.fileSystems.size();
+    }
+
+    @Override
+    public void close() {
+        IOException error = null;
+        for (FileSystem fs : this.fileSystems.values()) {
+            try {
+                fs.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        this.fileSystems.clear();
+        if (error != null) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
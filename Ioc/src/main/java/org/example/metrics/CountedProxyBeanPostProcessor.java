@@ -0,0 +1,31 @@
+package org.example.metrics;
+
+import org.example.AOP.MethodInterceptor;
+import org.example.annotation.Counted;
+
+import java.lang.reflect.Method;
+
+/**
+ * 为@Counted的方法记录调用次数和错误次数，需要在容器中同时声明MetricsRegistry。
+ */
+public class CountedProxyBeanPostProcessor extends MetricsProxyBeanPostProcessor<Counted> {
+
+    @Override
+    MethodInterceptor createInterceptor(MetricsRegistry registry, String name) {
+        return new CountingInterceptor(registry.counter(name));
+    }
+
+    static class CountingInterceptor implements MethodInterceptor {
+
+        final Counter counter;
+
+        CountingInterceptor(Counter counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void after(Object target, Method method, long context, Throwable error) {
+            this.counter.record(error != null);
+        }
+    }
+}
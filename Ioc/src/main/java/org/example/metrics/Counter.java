@@ -0,0 +1,38 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 方法调用次数和其中抛出异常的次数，多线程同时记录时LongAdder分散到不同的cell，避免争用同一个变量
+ */
+public class Counter {
+
+    final String name;
+
+    final LongAdder count = new LongAdder();
+
+    final LongAdder errors = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void record(boolean error) {
+        this.count.increment();
+        if (error) {
+            this.errors.increment();
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getErrorCount() {
+        return this.errors.sum();
+    }
+}
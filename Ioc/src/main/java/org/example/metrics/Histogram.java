@@ -0,0 +1,92 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定内存的无锁直方图，按HdrHistogram的方式分桶：小于2^SUB_BUCKET_BITS的值每个值一个桶，
+ * 之后每个2的幂区间再平均分成2^SUB_BUCKET_BITS个桶，相对误差不超过1/2^SUB_BUCKET_BITS（约3%）。
+ *
+ * 记录一个值只是一次数组元素的原子加一，不加锁也不分配内存；超过MAX_VALUE的值记入最后一个桶。
+ * 读取时逐个桶读取，并发记录时结果不是严格一致的快照。
+ */
+public class Histogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // 可以精确分桶的最大值，以纳秒计约18分钟:
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录一个非负值，负值按0记录
+     * @param value
+     */
+    public void record(long value) {
+        this.counts.incrementAndGet(indexOf(Math.min(Math.max(value, 0), MAX_VALUE)));
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += this.counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 返回不小于percentile%的记录值的最小值，即所在桶的上界；没有记录时返回0
+     * @param percentile 0到100
+     * @return
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKET_COUNT - 1);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // value在[2^e, 2^(e+1))中，取最高的SUB_BUCKET_BITS+1位确定桶:
+        int e = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (e - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (e - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long lowestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int e = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + sub) << (e - SUB_BUCKET_BITS);
+    }
+
+    static long highestValueOf(int index) {
+        return index + 1 < BUCKET_COUNT ? lowestValueOf(index + 1) - 1 : MAX_VALUE;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+import org.example.AOP.AnnotationProxyBeanPostProcessor;
+import org.example.AOP.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * @Timed、@Counted等指标注解的公共部分：查找注解、确定指标名称、从容器查找MetricsRegistry，
+ * 子类只需要为指标创建拦截器。注解的value()为指标名称，见{@link MetricsRegistry#metricName}。
+ *
+ * 使用直接调用方式的MethodInterceptor，记录时不装箱参数、不反射调用，也不分配内存；
+ * 和容器中的其他Advisor一起合并到同一个代理中。
+ */
+abstract class MetricsProxyBeanPostProcessor<A extends Annotation> extends AnnotationProxyBeanPostProcessor<A> {
+
+    volatile MetricsRegistry metricsRegistry;
+
+    /**
+     * 创建记录指定指标的拦截器
+     * @param registry 容器中的MetricsRegistry
+     * @param name 指标名称
+     * @return
+     */
+    abstract MethodInterceptor createInterceptor(MetricsRegistry registry, String name);
+
+    /**
+     * 不使用InvocationHandler
+     */
+    @Override
+    public InvocationHandler getHandler(Method method, Class<?> targetClass) {
+        return null;
+    }
+
+    @Override
+    public MethodInterceptor getInterceptor(Method method, Class<?> targetClass) {
+        A anno = findAnnotation(method, targetClass);
+        if (anno == null) {
+            return null;
+        }
+        MetricsRegistry registry = this.metricsRegistry;
+        if (registry == null) {
+            registry = MetricsRegistry.lookup();
+            this.metricsRegistry = registry;
+        }
+        String name = MetricsRegistry.metricName(getValue(anno), method.isAnnotationPresent(anno.annotationType()), method, targetClass);
+        return createInterceptor(registry, name);
+    }
+
+    String getValue(A anno) {
+        try {
+            return (String) anno.annotationType().getMethod("value").invoke(anno);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
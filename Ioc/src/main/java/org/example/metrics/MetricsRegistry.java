@@ -0,0 +1,100 @@
+package org.example.metrics;
+
+import org.example.annotation.Timed;
+import org.example.context.ApplicationContextUtils;
+import org.example.context.BeanDefinition;
+import org.example.context.ConfigurableApplicationContext;
+import org.example.web.utils.JsonUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 按名称保存@Timed和@Counted方法的指标，作为bean注册到容器中后可以注入查询，或用toJson()导出。
+ *
+ * 指标在创建代理时就已创建，拦截器直接持有指标对象，记录时不再按名称查找。
+ */
+public class MetricsRegistry {
+
+    final ConcurrentSkipListMap<String, Timer> timers = new ConcurrentSkipListMap<>();
+
+    final ConcurrentSkipListMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+    public Timer timer(String name) {
+        return this.timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public Counter counter(String name) {
+        return this.counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public SortedMap<String, Timer> getTimers() {
+        return Collections.unmodifiableSortedMap(this.timers);
+    }
+
+    public SortedMap<String, Counter> getCounters() {
+        return Collections.unmodifiableSortedMap(this.counters);
+    }
+
+    /**
+     * 输出为JSON，时间单位为毫秒
+     */
+    public String toJson() {
+        Map<String, Object> timers = new LinkedHashMap<>();
+        this.timers.forEach((name, timer) -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", timer.getCount());
+            map.put("errors", timer.getErrorCount());
+            map.put("total", millis(timer.getTotalNanos()));
+            map.put("mean", millis(timer.getMeanNanos()));
+            map.put("max", millis(timer.getMaxNanos()));
+            map.put("p50", millis(timer.getPercentileNanos(50)));
+            map.put("p90", millis(timer.getPercentileNanos(90)));
+            map.put("p99", millis(timer.getPercentileNanos(99)));
+            timers.put(name, map);
+        });
+        Map<String, Object> counters = new LinkedHashMap<>();
+        this.counters.forEach((name, counter) -> counters.put(name, Map.of("count", counter.getCount(), "errors", counter.getErrorCount())));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timers", timers);
+        json.put("counters", counters);
+        return JsonUtils.writeJson(json);
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 从当前正在创建的容器中查找MetricsRegistry
+     * @return
+     */
+    static MetricsRegistry lookup() {
+        ConfigurableApplicationContext ctx = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
+        BeanDefinition def = ctx.findBeanDefinition(MetricsRegistry.class);
+        if (def == null) {
+            throw new RuntimeException("MetricsRegistry bean not found, declare it to use @Timed or @Counted.");
+        }
+        Object instance = def.getInstance();
+        return (MetricsRegistry) (instance != null ? instance : ctx.createBeanAsEarlySingleton(def));
+    }
+
+    /**
+     * 注解指定的指标名称，见{@link Timed#value()}
+     * @param value 注解的value()
+     * @param onMethod 注解是否标注在方法上
+     * @param method
+     * @param targetClass
+     * @return
+     */
+    static String metricName(String value, boolean onMethod, Method method, Class<?> targetClass) {
+        if (value.isEmpty()) {
+            return targetClass.getSimpleName() + "." + method.getName();
+        }
+        return onMethod ? value : value + "." + method.getName();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.metrics;
+
+import org.example.AOP.MethodInterceptor;
+import org.example.annotation.Timed;
+
+import java.lang.reflect.Method;
+
+/**
+ * 为@Timed的方法记录调用次数、错误次数和耗时分布，需要在容器中同时声明MetricsRegistry。
+ */
+public class TimedProxyBeanPostProcessor extends MetricsProxyBeanPostProcessor<Timed> {
+
+    @Override
+    MethodInterceptor createInterceptor(MetricsRegistry registry, String name) {
+        return new TimingInterceptor(registry.timer(name));
+    }
+
+    static class TimingInterceptor implements MethodInterceptor {
+
+        final Timer timer;
+
+        TimingInterceptor(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public long before(Object target, Method method) {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void after(Object target, Method method, long start, Throwable error) {
+            this.timer.record(System.nanoTime() - start, error != null);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 方法调用的次数、错误次数、总耗时、最大耗时和耗时分布，时间单位为纳秒
+ */
+public class Timer extends Counter {
+
+    final LongAdder totalNanos = new LongAdder();
+
+    final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    final Histogram histogram = new Histogram();
+
+    Timer(String name) {
+        super(name);
+    }
+
+    public void record(long nanos, boolean error) {
+        record(error);
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+        this.histogram.record(nanos);
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalNanos() / count;
+    }
+
+    public long getPercentileNanos(double percentile) {
+        return this.histogram.getValueAtPercentile(percentile);
+    }
+
+    public Histogram getHistogram() {
+        return this.histogram;
+    }
+}
@@ -7,6 +7,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 
 public class ClassPathUtils {
@@ -26,6 +27,18 @@ public class ClassPathUtils {
         }
     }
 
+    /**
+     * 返回classpath中资源的URL，不存在时返回null
+     * @param path
+     * @return
+     */
+    public static URL getResource(String path) {
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return getContextClassLoader().getResource(path);
+    }
+
     public static String readString(String path) {
         return readInputStream(path, (input) -> {
             byte[] data = input.readAllBytes();
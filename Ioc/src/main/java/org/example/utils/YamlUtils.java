@@ -7,6 +7,11 @@ import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,18 +26,43 @@ public class YamlUtils {
 
     @SuppressWarnings("unchecked")
     public static Map<String, Object> loadYaml(String path) {
+        return ClassPathUtils.readInputStream(path, (input) -> {
+            return (Map<String, Object>) createYaml().load(input);
+        });
+    }
+
+    /**
+     * 从文件系统读取yaml，用于监视配置文件修改后重新加载
+     * @param file
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> loadYaml(Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            Map<String, Object> data = (Map<String, Object>) createYaml().load(input);
+            return data == null ? Map.of() : data;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Yaml createYaml() {
         var loaderOptions = new LoaderOptions();
         var dumperOptions = new DumperOptions();
         var representer = new Representer(dumperOptions);
         var resolver = new NoImplicitResolver();
-        var yaml = new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
-        return ClassPathUtils.readInputStream(path, (input) -> {
-            return (Map<String, Object>) yaml.load(input);
-        });
+        return new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
     }
 
     public static Map<String, Object> loadYamlAsPlainMap(String path) {
-        Map<String, Object> data = loadYaml(path);
+        return toPlainMap(loadYaml(path));
+    }
+
+    public static Map<String, Object> loadYamlAsPlainMap(Path file) {
+        return toPlainMap(loadYaml(file));
+    }
+
+    static Map<String, Object> toPlainMap(Map<String, Object> data) {
         Map<String, Object> plain = new LinkedHashMap<>();
         convertTo(data, "", plain);
         return plain;
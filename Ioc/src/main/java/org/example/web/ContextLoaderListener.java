@@ -4,6 +4,7 @@ import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import org.example.context.AnnotationConfigApplicationContext;
 import org.example.context.ApplicationContext;
+import org.example.context.ApplicationContextUtils;
 import org.example.io.PropertyResolver;
 import org.example.web.utils.WebUtils;
 import org.slf4j.Logger;
@@ -18,10 +19,14 @@ public class ContextLoaderListener implements ServletContextListener {
 
     Logger logger = LoggerFactory.getLogger(ContextLoaderListener.class);
 
+    // 保存配置，应用停止时关闭配置文件的监视器:
+    PropertyResolver propertyResolver;
+
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         var servletContext = sce.getServletContext();
         PropertyResolver propertyResolver = WebUtils.createPropertyResolver();
+        this.propertyResolver = propertyResolver;
 
         String encoding = propertyResolver.getProperty("${summer.web.character-encoding:UTF-8}");
         servletContext.setRequestCharacterEncoding(encoding);
@@ -31,7 +36,15 @@ public class ContextLoaderListener implements ServletContextListener {
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
-        ServletContextListener.super.contextDestroyed(sce);
+        // 按依赖关系逆序销毁bean，DispatcherServlet.destroy()已经关闭时不会重复执行:
+        ApplicationContext applicationContext = ApplicationContextUtils.getApplicationContext();
+        if (applicationContext != null) {
+            logger.info("close ApplicationContext on context destroyed.");
+            applicationContext.close();
+        }
+        if (this.propertyResolver != null) {
+            this.propertyResolver.closeWatchers();
+        }
     }
 
     ApplicationContext createApplicationContext(String configClassName, PropertyResolver propertyResolver){
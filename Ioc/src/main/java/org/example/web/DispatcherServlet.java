@@ -11,6 +11,7 @@ import jakarta.servlet.http.HttpSession;
 import org.example.context.ApplicationContext;
 import org.example.context.BeanDefinition;
 import org.example.context.ConfigurableApplicationContext;
+import org.example.context.RequestScope;
 import org.example.io.PropertyResolver;
 import org.example.utils.ClassUtils;
 import org.example.web.annotation.*;
@@ -66,23 +67,30 @@ public class DispatcherServlet extends HttpServlet {
 
     public DispatcherServlet(ApplicationContext applicationContext, PropertyResolver propertyResolver) {
         this.applicationContext = applicationContext;
-        this.viewResolver = this.applicationContext.getBean(viewResolver.getClass());
+        // 只有REST接口的应用可以没有ViewResolver:
+        List<ViewResolver> viewResolvers = this.applicationContext.getBeans(ViewResolver.class);
+        this.viewResolver = viewResolvers.isEmpty() ? null : viewResolvers.get(0);
     }
 
 
     @Override
     public void init(ServletConfig config) throws ServletException {
+        super.init(config);
         logger.info("init{}.", getClass().getName());
         ConfigurableApplicationContext configurableApplicationContext = (ConfigurableApplicationContext) this.applicationContext;
         List<BeanDefinition> beanDefinitions = configurableApplicationContext.findBeanDefinitions(Object.class);
         for (BeanDefinition def : beanDefinitions) {
             Class<?> beanClass = def.getBeanClass();
-            Object bean = def.getRequiredInstance();
             Controller controller = beanClass.getAnnotation(Controller.class);
             RestController restController = beanClass.getAnnotation(RestController.class);
             if (controller != null && restController != null) {
                 throw new ServletException("Controller and RestController can not be used at the same time." + beanClass.getName());
             }
+            // 只处理Controller，其他bean（包括没有实例的延迟bean和作用域bean）不需要获取实例:
+            if (controller == null && restController == null) {
+                continue;
+            }
+            Object bean = this.applicationContext.getBean(def.getName());
             if (controller != null) {
                 addController(false, def.getName(), bean);
             }else{
@@ -133,12 +141,27 @@ public class DispatcherServlet extends HttpServlet {
         this.applicationContext.close();
     }
 
+    /**
+     * 每个请求绑定一个请求作用域，请求结束后释放其中的bean
+     */
     @Override
-    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        logger.info("{} {}", req.getMethod(), req.getRequestURI());
-        String url = req.getRequestURI();
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        RequestScope.begin();
+        try {
+            super.service(req, resp);
+        } finally {
+            RequestScope.end();
+        }
+    }
 
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        doService(req, resp, this.getDispatchers);
+    }
 
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        doService(req, resp, this.postDispathcers);
     }
 
 
@@ -222,10 +245,11 @@ public class DispatcherServlet extends HttpServlet {
                         throw new ServletException("Unable to process " + r.getClass().getName() + " result when handle url: " + url);
                     }
                 }
+                return;
             }
-            return;
         }
-
+        // 没有匹配的dispatcher:
+        resp.sendError(404, "Not Found");
     }
 
 
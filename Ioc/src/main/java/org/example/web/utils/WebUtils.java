@@ -11,6 +11,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -27,6 +37,8 @@ public class WebUtils {
     static final String CONFIG_APP_YAML = "/application.yml";
     static final String CONFIG_APP_PROP = "/application.properties";
 
+    static final String CONFIG_WATCH = "summer.config.watch";
+
 
 
     public static void registerDispatcherServlet(ServletContext servletContext, PropertyResolver propertyResolver){
@@ -44,22 +56,20 @@ public class WebUtils {
 
 
     /**
-     * 从yaml中加载配置
+     * 从yaml中加载配置，配置summer.config.watch=true且配置文件位于文件系统（非jar）中时，监视文件修改并重新加载，
+     * 监视器保存在返回的PropertyResolver中，应用停止时调用{@link PropertyResolver#closeWatchers()}关闭
      * @return
      */
     public static PropertyResolver createPropertyResolver() {
         final Properties props = new Properties();
+        String configPath = CONFIG_APP_YAML;
         try {
             Map<String, Object> yamlMap = YamlUtils.loadYamlAsPlainMap(CONFIG_APP_YAML);
-            for (String key : yamlMap.keySet()) {
-                Object value = yamlMap.get(key);
-                if (value instanceof String strValue) {
-                    props.put(key, strValue);
-                }
-            }
+            props.putAll(toProperties(yamlMap));
         } catch (Exception e) {
             if (e.getCause() instanceof FileNotFoundException) {
                 // try load application.properties:
+                configPath = CONFIG_APP_PROP;
                 ClassPathUtils.readInputStream(CONFIG_APP_PROP, (input) -> {
                     logger.info("load config: {}", CONFIG_APP_PROP);
                     props.load(input);
@@ -67,7 +77,71 @@ public class WebUtils {
                 });
             }
         }
-        return new PropertyResolver(props);
+        PropertyResolver propertyResolver = new PropertyResolver(props);
+        Boolean watch = propertyResolver.getProperty(CONFIG_WATCH, Boolean.class);
+        if (watch != null && watch) {
+            watchConfigFile(propertyResolver, configPath);
+        }
+        return propertyResolver;
+    }
+
+    static void watchConfigFile(PropertyResolver propertyResolver, String configPath) {
+        URL url = ClassPathUtils.getResource(configPath);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            logger.warn("cannot watch config {} which is not a file: {}", configPath, url);
+            return;
+        }
+        try {
+            Path file = Paths.get(url.toURI());
+            propertyResolver.watch(file, WebUtils::loadConfigFile);
+        } catch (IOException | URISyntaxException e) {
+            logger.warn("cannot watch config file {}.", url, e);
+        }
+    }
+
+    /**
+     * 从文件系统读取application.yml或application.properties
+     * @param file
+     * @return
+     */
+    static Properties loadConfigFile(Path file) {
+        if (file.getFileName().toString().endsWith(".yml")) {
+            return toProperties(YamlUtils.loadYamlAsPlainMap(file));
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return props;
+    }
+
+    /**
+     * yaml中的列表展开为带下标的key，如servers[0].host，供@ConfigurationProperties绑定
+     * @param yamlMap
+     * @return
+     */
+    static Properties toProperties(Map<String, Object> yamlMap) {
+        Properties props = new Properties();
+        for (String key : yamlMap.keySet()) {
+            flatten(key, yamlMap.get(key), props);
+        }
+        return props;
+    }
+
+    static void flatten(String key, Object value, Properties props) {
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                flatten(key + "." + e.getKey(), e.getValue(), props);
+            }
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                flatten(key + "[" + i + "]", list.get(i), props);
+            }
+        } else if (value != null) {
+            props.put(key, value.toString());
+        }
     }
 
 
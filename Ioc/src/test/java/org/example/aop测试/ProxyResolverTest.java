@@ -1,9 +1,22 @@
 package org.example.aop测试;
 
 
+import junit.framework.TestCase;
+import org.example.AOP.Advisor;
+import org.example.AOP.AdvisorRegistry;
+import org.example.AOP.MethodInterceptor;
+import org.example.AOP.Pointcut;
 import org.example.AOP.ProxyResolver;
 
-public class ProxyResolverTest {
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class ProxyResolverTest extends TestCase {
 
     public void testProxyResovler() {
         OriginBean origin = new OriginBean();
@@ -19,6 +32,137 @@ public class ProxyResolverTest {
 
     }
 
+    public void testProxyClassCached() {
+        ProxyResolver resolver = new ProxyResolver();
+        OriginBean bob = new OriginBean();
+        bob.name = "Bob";
+        OriginBean alice = new OriginBean();
+        alice.name = "Alice";
+
+        OriginBean bobProxy = resolver.createProxy(bob, new PoliteInvocationHandler());
+        OriginBean aliceProxy = resolver.createProxy(alice, new PoliteInvocationHandler());
+        // 同一类型只生成一个代理类，每个代理调用各自的目标和handler:
+        assertSame(bobProxy.getClass(), aliceProxy.getClass());
+        assertEquals("Hello, Bob!", bobProxy.hello());
+        assertEquals("Morning, Alice.", aliceProxy.morning());
+
+        Runnable r1 = resolver.createProxy(Runnable.class, (proxy, method, args) -> null);
+        Runnable r2 = resolver.createProxy(Runnable.class, (proxy, method, args) -> {
+            throw new IllegalStateException("r2");
+        });
+        assertSame(r1.getClass(), r2.getClass());
+        r1.run();
+        try {
+            r2.run();
+            fail("handler of r2 not called");
+        } catch (IllegalStateException e) {
+            assertEquals("r2", e.getMessage());
+        }
+    }
+
+    public static class Counter {
+
+        public int count;
+
+        @Polite
+        public int add(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+            return this.count += n;
+        }
+
+        public int get() {
+            return this.count;
+        }
+    }
+
+    public void testDirectProxy() {
+        List<String> calls = new ArrayList<>();
+        MethodInterceptor interceptor = new MethodInterceptor() {
+            @Override
+            public long before(Object target, Method method) {
+                calls.add("before " + method.getName());
+                return 42;
+            }
+
+            @Override
+            public void after(Object target, Method method, long context, Throwable error) {
+                calls.add("after " + method.getName() + " " + context + " " + (error == null ? "ok" : error.getMessage()));
+            }
+        };
+        ProxyResolver resolver = new ProxyResolver();
+        Counter counter = new Counter();
+        Counter proxy = resolver.createProxy(counter, m -> m.isAnnotationPresent(Polite.class) ? interceptor : null);
+        assertNotSame(counter, proxy);
+
+        assertEquals(3, proxy.add(3));
+        assertEquals(3, proxy.get());
+        try {
+            proxy.add(-1);
+            fail("exception not propagated");
+        } catch (IllegalArgumentException e) {
+            assertEquals("negative", e.getMessage());
+        }
+        // 只拦截了@Polite方法，调用作用在原始bean上:
+        assertEquals(List.of("before add", "after add 42 ok", "before add", "after add 42 negative"), calls);
+        assertEquals(3, counter.count);
+
+        // 拦截的方法相同时复用代理类，没有需要拦截的方法时返回原始bean:
+        assertSame(proxy.getClass(), resolver.createProxy(new Counter(), m -> m.getName().equals("add") ? interceptor : null).getClass());
+        assertSame(counter, resolver.createProxy(counter, m -> null));
+    }
+
+    public void testPointcutHandlers() throws Exception {
+        ProxyResolver resolver = new ProxyResolver();
+        Pointcut pointcut = Pointcut.named("*dd").and(Pointcut.parameterTypes(int.class))
+                .or(Pointcut.annotatedWith(Polite.class).and(Pointcut.named("hello")));
+        Method[] methods = resolver.getProxyMethods(Counter.class);
+        InvocationHandler[] handlers = new InvocationHandler[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            if (pointcut.matches(methods[i], Counter.class)) {
+                handlers[i] = (bean, method, args) -> (Integer) method.invoke(bean, args) * 10;
+            }
+        }
+        Counter counter = new Counter();
+        Counter proxy = resolver.createProxy(counter, null, handlers);
+        assertEquals(20, proxy.add(2));
+        // 不匹配的方法直接调用原始bean:
+        assertEquals(2, proxy.get());
+        assertTrue(Pointcut.named("get*").matches(Counter.class.getMethod("get"), Counter.class));
+        assertFalse(Pointcut.parameterTypes(long.class).matches(Counter.class.getMethod("add", int.class), Counter.class));
+    }
+
+    public void testChainHandlers() {
+        List<String> calls = new ArrayList<>();
+        Set<Object> receivers = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Advisor> advisors = new ArrayList<>();
+        for (String name : List.of("a", "b", "c")) {
+            advisors.add(new Advisor() {
+                @Override
+                public InvocationHandler getHandler(Method method, Class<?> targetClass) {
+                    if (!method.getName().equals("add")) {
+                        return null;
+                    }
+                    return (bean, m, args) -> {
+                        calls.add(name);
+                        receivers.add(bean);
+                        return (Integer) m.invoke(bean, args) + ((Counter) bean).get();
+                    };
+                }
+            });
+        }
+        Counter counter = new Counter();
+        Counter proxy = (Counter) new AdvisorRegistry(advisors).createProxy(counter);
+        // c调用原始bean得到1+1，b和a调用的get()直接交给原始bean:
+        assertEquals(4, proxy.add(1));
+        assertEquals(List.of("a", "b", "c"), calls);
+        // 外层handler共用一个转发对象，最内层收到原始bean:
+        assertEquals(2, receivers.size());
+        assertTrue(receivers.contains(counter));
+        assertEquals(1, counter.count);
+    }
+
     public static void main(String[] args) {
         ProxyResolverTest proxyResolverTest = new ProxyResolverTest();
         proxyResolverTest.testProxyResovler();
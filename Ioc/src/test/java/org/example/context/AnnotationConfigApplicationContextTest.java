@@ -0,0 +1,412 @@
+package org.example.context;
+
+import junit.framework.TestCase;
+import org.example.context.fixture.FixtureConfig;
+import org.example.context.fixture.UserRepository;
+import org.example.context.fixture.UserService;
+import org.example.context.lazy.AdminEndpoint;
+import org.example.context.lazy.ExpensiveReporter;
+import org.example.context.lazy.LazyConfig;
+import org.example.context.lazy.ReportClient;
+import org.example.context.lazy.Reporter;
+import org.example.context.lazycall.AuditClient;
+import org.example.context.lazycall.AuditLog;
+import org.example.context.lazycall.LazyCallConfig;
+import org.example.context.lazycall.LazyGreeter;
+import org.example.context.lazycall.WelcomeBanner;
+import org.example.context.parallel.ParallelConfig;
+import org.example.context.parallel.Warmups;
+import org.example.context.advice.AdviceConfig;
+import org.example.context.advice.AuditProxyBeanPostProcessor;
+import org.example.context.advice.CallCountingAdvisor;
+import org.example.context.advice.PriceService;
+import org.example.context.aop.AopConfig;
+import org.example.context.aop.GreetingClient;
+import org.example.context.aop.GreetingService;
+import org.example.context.aop.Ticket;
+import org.example.context.aop.Trace;
+import org.example.context.refresh.CacheProperties;
+import org.example.context.refresh.PoolSettings;
+import org.example.context.refresh.RefreshConfig;
+import org.example.context.refresh.ServerProperties;
+import org.example.context.refresh.Timeouts;
+import org.example.context.scope.RequestContext;
+import org.example.context.shutdown.HangingWorker;
+import org.example.context.shutdown.ShutdownConfig;
+import org.example.context.scope.ScopeClient;
+import org.example.context.scope.ScopeConfig;
+import org.example.context.scope.Token;
+import org.example.context.scope.Worker;
+import org.example.io.PropertyResolver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class AnnotationConfigApplicationContextTest extends TestCase {
+
+    static PropertyResolver createPropertyResolver(String... keyValues) {
+        return new PropertyResolver(props(keyValues));
+    }
+
+    static Properties props(String... keyValues) {
+        Properties props = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            props.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return props;
+    }
+
+    public void testCreateBeans() {
+        var ctx = new AnnotationConfigApplicationContext(FixtureConfig.class, createPropertyResolver("app.user", "Alice"));
+        UserService service = ctx.getBean(UserService.class);
+        assertSame(ctx.getBean(UserRepository.class), service.getRepository());
+        assertSame(ctx.getBean("greeting"), service.getGreeting());
+        assertEquals("Hello, Alice#1", service.getGreeting().greet(1));
+    }
+
+    public void testFindBeanDefinitionsByType() {
+        var ctx = new AnnotationConfigApplicationContext(FixtureConfig.class, createPropertyResolver());
+        assertEquals(4, ctx.findBeanDefinitions(Object.class).size());
+        assertEquals(List.of(ctx.findBeanDefinition("userService")), ctx.findBeanDefinitions(UserService.class));
+        assertTrue(ctx.findBeanDefinitions(Runnable.class).isEmpty());
+        assertSame(ctx.findBeanDefinition(UserRepository.class), ctx.findBeanDefinition(UserRepository.class));
+        assertNull(ctx.findBeanDefinition(Runnable.class));
+    }
+
+    public void testLazyBeans() throws Exception {
+        ExpensiveReporter.CREATED.set(0);
+        AdminEndpoint.CREATED.set(0);
+        var ctx = new AnnotationConfigApplicationContext(LazyConfig.class, createPropertyResolver());
+        assertEquals(0, ExpensiveReporter.CREATED.get());
+        assertEquals(0, AdminEndpoint.CREATED.get());
+
+        // 非延迟bean注入的是代理，调用时才创建:
+        Reporter reporter = ctx.getBean(ReportClient.class).getReporter();
+        assertFalse(reporter instanceof ExpensiveReporter);
+        assertEquals("report: ready", reporter.report());
+        assertEquals(1, ExpensiveReporter.CREATED.get());
+
+        // 多个线程同时获取只创建一次:
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AdminEndpoint>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> ctx.getBean(AdminEndpoint.class)));
+            }
+            AdminEndpoint endpoint = futures.get(0).get();
+            for (Future<AdminEndpoint> future : futures) {
+                assertSame(endpoint, future.get());
+            }
+            assertSame(ctx.getBean(ExpensiveReporter.class), endpoint.getReporter());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, AdminEndpoint.CREATED.get());
+        assertEquals(1, ExpensiveReporter.CREATED.get());
+    }
+
+    public void testCallLazyBeanFromInitMethod() {
+        // 非延迟bean的init方法在启动过程中调用延迟bean的代理，此时才创建、注入并初始化延迟bean:
+        var ctx = new AnnotationConfigApplicationContext(LazyCallConfig.class, createPropertyResolver());
+        assertEquals("Hello, summer", ctx.getBean(WelcomeBanner.class).getText());
+        assertSame(ctx.getBean(LazyGreeter.class), ctx.getBean(LazyGreeter.class));
+        assertEquals("Hello, Bob", ctx.getBean(LazyGreeter.class).greet("Bob"));
+    }
+
+    public void testLazyClassProxySkipsConstructor() {
+        AuditLog.CREATED.set(0);
+        var ctx = new AnnotationConfigApplicationContext(LazyCallConfig.class, createPropertyResolver());
+        // 按具体类注入的代理不调用AuditLog的构造方法:
+        AuditLog auditLog = ctx.getBean(AuditClient.class).getAuditLog();
+        assertEquals(0, AuditLog.CREATED.get());
+        assertEquals(1, auditLog.record("login"));
+        assertEquals(2, auditLog.record("logout"));
+        assertEquals(1, AuditLog.CREATED.get());
+    }
+
+    public void testPrototypeAndThreadScope() throws Exception {
+        Worker.DESTROYED.set(0);
+        var ctx = new AnnotationConfigApplicationContext(ScopeConfig.class, createPropertyResolver());
+        assertNotSame(ctx.getBean(Token.class), ctx.getBean(Token.class));
+        assertNotSame(ctx.getBean(Token.class), ctx.getBean(ScopeClient.class).getToken());
+
+        Worker worker = ctx.getBean(Worker.class);
+        assertSame(worker, ctx.getBean(Worker.class));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Worker other = executor.submit(() -> ctx.getBean(Worker.class)).get();
+            assertNotSame(worker, other);
+        } finally {
+            executor.shutdown();
+        }
+        // 关闭时销毁所有线程的实例:
+        ctx.close();
+        assertEquals(2, Worker.DESTROYED.get());
+    }
+
+    public void testDestroyThreadScopedBeansOfDeadThreads() throws Exception {
+        Worker.DESTROYED.set(0);
+        var ctx = new AnnotationConfigApplicationContext(ScopeConfig.class, createPropertyResolver());
+        Thread thread = new Thread(() -> ctx.getBean(Worker.class));
+        thread.start();
+        thread.join();
+        assertEquals(0, Worker.DESTROYED.get());
+        // 下一个线程第一次使用线程作用域时销毁已结束线程的实例:
+        ctx.getBean(Worker.class);
+        assertEquals(1, Worker.DESTROYED.get());
+        ctx.close();
+        assertEquals(2, Worker.DESTROYED.get());
+    }
+
+    public void testRequestScope() throws Exception {
+        RequestContext.CREATED.set(0);
+        RequestContext.DESTROYED.set(0);
+        var ctx = new AnnotationConfigApplicationContext(ScopeConfig.class, createPropertyResolver());
+        RequestContext proxy = ctx.getBean(ScopeClient.class).getRequestContext();
+        assertFalse(proxy.getClass() == RequestContext.class);
+        try {
+            ctx.getBean(RequestContext.class);
+            fail("request scoped bean is not available outside a request");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        RequestScope.begin();
+        try {
+            assertSame(ctx.getBean(RequestContext.class), ctx.getBean(RequestContext.class));
+            assertEquals(1, proxy.getId());
+        } finally {
+            RequestScope.end();
+        }
+        // 实例归还到池中，下一个请求复用:
+        RequestScope.begin();
+        try {
+            assertEquals(1, proxy.getId());
+        } finally {
+            RequestScope.end();
+        }
+        assertEquals(1, RequestContext.CREATED.get());
+        assertEquals(0, RequestContext.DESTROYED.get());
+
+        // 池满时多出的实例被销毁:
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        RequestScope.begin();
+        try {
+            RequestContext first = ctx.getBean(RequestContext.class);
+            RequestContext second = executor.submit(() -> {
+                RequestScope.begin();
+                try {
+                    return ctx.getBean(RequestContext.class);
+                } finally {
+                    RequestScope.end();
+                }
+            }).get();
+            assertNotSame(first, second);
+        } finally {
+            RequestScope.end();
+            executor.shutdown();
+        }
+        assertEquals(2, RequestContext.CREATED.get());
+        assertEquals(1, RequestContext.DESTROYED.get());
+
+        // 嵌套的请求结束后恢复外层请求的实例:
+        RequestScope.begin();
+        try {
+            RequestContext outer = ctx.getBean(RequestContext.class);
+            RequestScope.begin();
+            try {
+                assertNotSame(outer, ctx.getBean(RequestContext.class));
+            } finally {
+                RequestScope.end();
+            }
+            assertTrue(RequestScope.isActive());
+            assertSame(outer, ctx.getBean(RequestContext.class));
+        } finally {
+            RequestScope.end();
+        }
+        assertFalse(RequestScope.isActive());
+    }
+
+    public void testCloseInReverseDependencyOrder() {
+        ShutdownConfig.DESTROYED.clear();
+        HangingWorker.sleepMillis = 0;
+        var ctx = new AnnotationConfigApplicationContext(ShutdownConfig.class, createPropertyResolver());
+        ctx.close();
+        ctx.close();
+        List<String> destroyed = ShutdownConfig.DESTROYED;
+        assertEquals(4, destroyed.size());
+        assertTrue(destroyed.indexOf("service") < destroyed.indexOf("dao"));
+        assertTrue(destroyed.indexOf("dao") < destroyed.indexOf("pool"));
+        assertTrue(ctx.getShutdownReport().isClean());
+        assertEquals(4, ctx.getShutdownReport().beanDurations().size());
+    }
+
+    public void testCloseTimeouts() {
+        ShutdownConfig.DESTROYED.clear();
+        ShutdownConfig.THREADS.clear();
+        HangingWorker.sleepMillis = 5000;
+        try {
+            var ctx = new AnnotationConfigApplicationContext(ShutdownConfig.class,
+                    createPropertyResolver("summer.context.shutdown.bean-timeout", "PT0.2S", "summer.context.shutdown.timeout", "PT2S",
+                            "summer.context.shutdown.parallelism", "1"));
+            long start = System.nanoTime();
+            ctx.close();
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+            // 超时的bean不影响其他分支:
+            assertEquals(List.of("hangingWorker"), ctx.getShutdownReport().timedOut());
+            assertTrue(ShutdownConfig.DESTROYED.containsAll(List.of("service", "dao", "pool")));
+            assertFalse(ShutdownConfig.DESTROYED.contains("worker"));
+            // 超时的线程被中断后继续销毁其他bean，不为每个bean创建线程:
+            assertEquals(Set.of("summer-shutdown-1"), ShutdownConfig.THREADS);
+        } finally {
+            HangingWorker.sleepMillis = 0;
+        }
+    }
+
+    public void testStartupReport() {
+        var ctx = new AnnotationConfigApplicationContext(FixtureConfig.class, createPropertyResolver("app.user", "Alice"));
+        StartupReport report = ctx.getStartupReport();
+        assertEquals(List.of("scan", "definitions", "configurations", "post-processors", "normal-beans", "injection", "init"),
+                List.copyOf(report.phases().keySet()));
+        List<String> names = report.beans().stream().map(StartupReport.BeanTiming::name).toList();
+        assertEquals(List.of("fixtureConfig", "greeting", "userRepository", "userService"), names);
+        // greeting的工厂方法依赖userRepository，因此userRepository由greeting触发创建:
+        assertEquals(List.of("greeting"), report.beans().get(2).chain());
+        assertTrue(report.toJson().contains("\"name\":\"userService\""));
+    }
+
+    public void testRefreshValuesAfterReload() {
+        PropertyResolver resolver = createPropertyResolver("pool.name", "orders");
+        var ctx = new AnnotationConfigApplicationContext(RefreshConfig.class, resolver);
+        PoolSettings settings = ctx.getBean(PoolSettings.class);
+        Timeouts timeouts = ctx.getBean(Timeouts.class);
+        assertEquals(8, settings.getSize());
+        assertEquals(Duration.ofSeconds(1), timeouts.getTimeout());
+
+        resolver.reload(props("pool.name", "payments", "pool.size", "32", "pool.timeout", "PT5S"));
+        assertEquals(32, settings.getSize());
+        assertEquals("payments", settings.getName());
+        assertEquals(Duration.ofSeconds(5), timeouts.getTimeout());
+
+        // 无法转换的值不会覆盖原来的值:
+        resolver.reload(props("pool.name", "payments", "pool.size", "many"));
+        assertEquals(32, settings.getSize());
+
+        ctx.close();
+        resolver.reload(props("pool.name", "closed", "pool.size", "4"));
+        assertEquals("payments", settings.getName());
+    }
+
+    public void testConfigurationProperties() {
+        PropertyResolver resolver = createPropertyResolver("pool.name", "orders", "server.host", "localhost", "server.port", "8080",
+                "server.aliases[0]", "a", "server.aliases[1]", "b");
+        var ctx = new AnnotationConfigApplicationContext(RefreshConfig.class, resolver);
+        assertEquals(new ServerProperties("localhost", 8080, List.of("a", "b")), ctx.getBean(ServerProperties.class));
+        CacheProperties cache = ctx.getBean(CacheProperties.class);
+        assertEquals(1000, cache.getMaxEntries());
+
+        resolver.reload(props("pool.name", "orders", "cache.max-entries", "50"));
+        assertEquals(50, cache.getMaxEntries());
+        ctx.close();
+    }
+
+    public void testAroundProxy() {
+        var ctx = new AnnotationConfigApplicationContext(AopConfig.class, createPropertyResolver("greeting.prefix", "Hi"));
+        GreetingService service = ctx.getBean(GreetingService.class);
+        // 所有Advisor合并到一个代理中:
+        assertSame(GreetingService.class, service.getClass().getSuperclass());
+        // @Value注入到原始bean，QuoteAdvisor的handler在@Around的handler外层:
+        assertEquals("\"HI, BOB\"", service.hello("bob"));
+        assertEquals("\"HI, ALICE\"", ctx.getBean(GreetingClient.class).greet("alice"));
+        // 拦截器按@Order在handler外层执行:
+        assertEquals("hi!", service.shout("hi"));
+        assertEquals(List.of("tracing before", "timing before", "timing after", "tracing after"), ctx.getBean(Trace.class).events);
+        // Object的方法不拦截:
+        assertTrue(service.toString().startsWith(GreetingService.class.getName() + "@"));
+        ctx.close();
+    }
+
+    public void testProxyWithPlainAdvisors() {
+        // 没有AnnotationProxyBeanPostProcessor时，容器也会为Advisor创建代理:
+        var ctx = new AnnotationConfigApplicationContext(AdviceConfig.class, createPropertyResolver());
+        PriceService service = ctx.getBean(PriceService.class);
+        assertSame(PriceService.class, service.getClass().getSuperclass());
+        assertEquals(30, service.price("tea"));
+        assertEquals(1, ctx.getBean(CallCountingAdvisor.class).calls.get());
+        // AnnotationProxyBeanPostProcessor的子类仍然作为BeanPostProcessor调用:
+        assertTrue(ctx.getBean(AuditProxyBeanPostProcessor.class).processed.contains("priceService"));
+        ctx.close();
+    }
+
+    public void testCreateAdvisedPrototypesConcurrently() throws Exception {
+        var ctx = new AnnotationConfigApplicationContext(AopConfig.class, createPropertyResolver("greeting.prefix", "Hi"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Ticket>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Ticket> tickets = new ArrayList<>();
+                    for (int n = 0; n < 200; n++) {
+                        tickets.add(ctx.getBean(Ticket.class));
+                    }
+                    return tickets;
+                }));
+            }
+            Set<Ticket> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<List<Ticket>> future : futures) {
+                for (Ticket ticket : future.get()) {
+                    // 每个实例的@Value都注入到自己的原始bean:
+                    assertEquals("HI TICKET", ticket.label());
+                    distinct.add(ticket);
+                }
+            }
+            assertEquals(1600, distinct.size());
+        } finally {
+            executor.shutdown();
+        }
+        ctx.close();
+    }
+
+    public void testLazyInitByDefault() {
+        var ctx = new AnnotationConfigApplicationContext(FixtureConfig.class,
+                createPropertyResolver("summer.context.lazy-init", "true"));
+        assertNull(ctx.findBeanDefinition("userService").getInstance());
+        UserService service = ctx.getBean(UserService.class);
+        assertTrue(service.isRepositoryInitializedFirst());
+        assertEquals("Hello, Bob#3", service.getGreeting().greet(3));
+    }
+
+    public void testInjectionMetadataCachedPerClass() {
+        InjectionMetadata metadata = InjectionMetadata.forClass(UserService.class);
+        assertSame(metadata, InjectionMetadata.forClass(UserService.class));
+        assertEquals(1, metadata.getElements().size());
+        assertEquals("greeting", metadata.getElements().get(0).name());
+        assertTrue(InjectionMetadata.forClass(FixtureConfig.class).getElements().isEmpty());
+    }
+
+    public void testCreateBeansInParallel() {
+        var ctx = new AnnotationConfigApplicationContext(FixtureConfig.class,
+                createPropertyResolver("summer.context.parallelism", "4"));
+        UserService service = ctx.getBean(UserService.class);
+        assertTrue(service.isRepositoryInitializedFirst());
+        assertEquals("Hello, Bob#2", service.getGreeting().greet(2));
+    }
+
+    public void testInitIndependentBeansConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var ctx = new AnnotationConfigApplicationContext(ParallelConfig.class, createPropertyResolver(), executor);
+            assertTrue(ctx.getBean(Warmups.class).isAllWarmedUp());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.context;
+
+import junit.framework.TestCase;
+import org.example.context.fixture.FixtureConfig;
+import org.example.context.fixture.UserRepository;
+import org.example.context.fixture.UserService;
+import org.example.io.PropertyResolver;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ContextSnapshotTest extends TestCase {
+
+    Path dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.dir = Files.createTempDirectory("summer-snapshot");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (var files = Files.walk(this.dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public void testStartFromSnapshot() {
+        Path snapshot = this.dir.resolve("context.snapshot");
+        PropertyResolver propertyResolver = AnnotationConfigApplicationContextTest.createPropertyResolver(
+                "app.user", "Alice", "summer.context.snapshot", snapshot.toString());
+
+        ScanCountingContext first = new ScanCountingContext(propertyResolver);
+        assertEquals(1, first.scans.get());
+        assertTrue(Files.isRegularFile(snapshot));
+
+        ScanCountingContext second = new ScanCountingContext(propertyResolver);
+        assertEquals(0, second.scans.get());
+        assertEquals(first.findBeanDefinitions(Object.class).size(), second.findBeanDefinitions(Object.class).size());
+        for (BeanDefinition def : first.findBeanDefinitions(Object.class)) {
+            BeanDefinition loaded = second.findBeanDefinition(def.getName());
+            assertEquals(def.getBeanClass(), loaded.getBeanClass());
+            assertEquals(def.getConstructor(), loaded.getConstructor());
+            assertEquals(def.getFactoryMethod(), loaded.getFactoryMethod());
+            assertEquals(def.getInitMethod(), loaded.getInitMethod());
+            assertEquals(def.getOrder(), loaded.getOrder());
+        }
+        assertEquals("Hello, Alice#1", second.getBean(UserService.class).getGreeting().greet(1));
+    }
+
+    public void testStaleSnapshotIgnored() {
+        ContextSnapshot snapshot = new ContextSnapshot(this.dir.resolve("context.snapshot"), getClass().getClassLoader());
+        String fingerprint = snapshot.fingerprint(List.of(this.dir.toString()), "a");
+        snapshot.write(fingerprint, List.of());
+        assertNotNull(snapshot.read(fingerprint));
+        assertNull(snapshot.read(snapshot.fingerprint(List.of(this.dir.toString()), "b")));
+    }
+
+    public void testChangedComponentRejectsSnapshot() throws Exception {
+        // 用自定义classloader增加一个扫描位置，java.class.path保持不变:
+        Path root = this.dir.resolve("classes");
+        Path component = root.resolve(UserRepository.class.getName().replace(".", "/") + ".class");
+        Files.createDirectories(component.getParent());
+        try (InputStream input = UserRepository.class.getResourceAsStream("UserRepository.class")) {
+            Files.copy(input, component);
+        }
+        Path snapshot = this.dir.resolve("context.snapshot");
+        PropertyResolver propertyResolver = AnnotationConfigApplicationContextTest.createPropertyResolver(
+                "app.user", "Alice", "summer.context.snapshot", snapshot.toString());
+        String classPath = System.getProperty("java.class.path");
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+            assertEquals(1, new ScanCountingContext(propertyResolver).scans.get());
+            assertEquals(0, new ScanCountingContext(propertyResolver).scans.get());
+
+            // 模拟重新编译组件:
+            Files.setLastModifiedTime(component, FileTime.fromMillis(Files.getLastModifiedTime(component).toMillis() + 60_000));
+            assertEquals(classPath, System.getProperty("java.class.path"));
+            assertEquals(1, new ScanCountingContext(propertyResolver).scans.get());
+            assertEquals(0, new ScanCountingContext(propertyResolver).scans.get());
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    static class ScanCountingContext extends AnnotationConfigApplicationContext {
+
+        // 父类构造方法中会调用scanForClassNames()，此时子类字段还没有初始化:
+        static final ThreadLocal<AtomicInteger> COUNTER = new ThreadLocal<>();
+
+        final AtomicInteger scans;
+
+        ScanCountingContext(PropertyResolver propertyResolver) {
+            super(FixtureConfig.class, reset(propertyResolver));
+            this.scans = COUNTER.get();
+        }
+
+        static PropertyResolver reset(PropertyResolver propertyResolver) {
+            COUNTER.set(new AtomicInteger());
+            return propertyResolver;
+        }
+
+        @Override
+        protected Set<String> scanForClassNames(Class<?> configClass) {
+            COUNTER.get().incrementAndGet();
+            return super.scanForClassNames(configClass);
+        }
+    }
+}
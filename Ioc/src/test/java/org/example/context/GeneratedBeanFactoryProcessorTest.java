@@ -0,0 +1,141 @@
+package org.example.context;
+
+import junit.framework.TestCase;
+import org.example.annotation.Component;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeneratedBeanFactoryProcessorTest extends TestCase {
+
+    public void testContextUsesGeneratedFactories() throws Exception {
+        Path src = Files.createTempDirectory("summer-src");
+        Path out = Files.createTempDirectory("summer-out");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Config.java"), """
+                package demo;
+                import org.example.annotation.*;
+                @Configuration
+                public class Config {
+                    @Bean
+                    public StringBuilder greeting(@Value("${app.greeting:Hello}") String greeting, @Autowired Repo repo) {
+                        return new StringBuilder(greeting).append(", ").append(repo.name());
+                    }
+                }
+                """);
+        Files.writeString(pkg.resolve("Repo.java"), """
+                package demo;
+                @org.example.annotation.Component
+                public class Repo {
+                    public String name() { return "repo"; }
+                }
+                """);
+        Files.writeString(pkg.resolve("Service.java"), """
+                package demo;
+                import org.example.annotation.*;
+                @Component
+                public class Service {
+                    final Repo repo;
+                    @Autowired StringBuilder greeting;
+                    @Autowired private Repo privateRepo;
+                    String user;
+                    public Service(@Autowired Repo repo) { this.repo = repo; }
+                    @Value("${app.user}") void setUser(String user) { this.user = user; }
+                    public String hello() { return greeting + " " + user + (repo == privateRepo ? "" : "!"); }
+                }
+                """);
+        assertEquals("", compile(src, out, pkg.resolve("Config.java"), pkg.resolve("Repo.java"), pkg.resolve("Service.java")));
+        assertTrue(Files.isRegularFile(out.resolve("demo/Service$$SummerFactory.class")));
+        assertEquals(List.of("demo.Config$$SummerFactory", "demo.Repo$$SummerFactory", "demo.Service$$SummerFactory"),
+                Files.readAllLines(out.resolve(GeneratedBeanFactoryProcessor.SERVICE_RESOURCE_LOCATION)));
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { out.toUri().toURL() }, getClass().getClassLoader())) {
+            Thread.currentThread().setContextClassLoader(loader);
+            Class<?> configClass = loader.loadClass("demo.Config");
+            var ctx = new AnnotationConfigApplicationContext(configClass, AnnotationConfigApplicationContextTest.createPropertyResolver("app.user", "Bob"));
+            for (BeanDefinition def : ctx.findBeanDefinitions(Object.class)) {
+                assertNotNull(def.getName(), def.getGeneratedFactory());
+            }
+            Object service = ctx.getBean("service");
+            assertEquals("Hello, repo Bob", service.getClass().getMethod("hello").invoke(service));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    public void testDuplicateInjectionNames() throws Exception {
+        Path src = Files.createTempDirectory("summer-src");
+        Path out = Files.createTempDirectory("summer-out");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Labels.java"), """
+                package demo;
+                import org.example.annotation.*;
+                @Configuration
+                public class Labels {
+                    @Value("${app.name}") String name;
+                    String upper;
+                    Integer size;
+                    @Value("${app.name}") void name(String name) { this.upper = name.toUpperCase(); }
+                    @Value("${app.size}") void size(int size) { this.size = size; }
+                    @Value("${app.size}") void size(Integer size) { this.size = size + 1; }
+                    public String label() { return name + "/" + upper + "/" + size; }
+                }
+                """);
+        // 同名的字段和方法、重载的方法不能生成重复的case:
+        assertEquals("", compile(src, out, pkg.resolve("Labels.java")));
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { out.toUri().toURL() }, getClass().getClassLoader())) {
+            Thread.currentThread().setContextClassLoader(loader);
+            Class<?> configClass = loader.loadClass("demo.Labels");
+            var ctx = new AnnotationConfigApplicationContext(configClass,
+                    AnnotationConfigApplicationContextTest.createPropertyResolver("app.name", "bob", "app.size", "3"));
+            assertNotNull(ctx.findBeanDefinition("labels").getGeneratedFactory());
+            Object labels = ctx.getBean("labels");
+            String label = (String) labels.getClass().getMethod("label").invoke(labels);
+            assertTrue(label, label.startsWith("bob/BOB/"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    public void testAmbiguousDependencyFailsCompilation() throws Exception {
+        Path src = Files.createTempDirectory("summer-src");
+        Path out = Files.createTempDirectory("summer-out");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Repos.java"), """
+                package demo;
+                import org.example.annotation.*;
+                public class Repos {
+                    public interface Repo {}
+                    @Component public static class A implements Repo {}
+                    @Component public static class B implements Repo {}
+                    @Component public static class Client { @Autowired Repo repo; }
+                }
+                """);
+        String errors = compile(src, out, pkg.resolve("Repos.java"));
+        assertTrue(errors, errors.contains("Multiple bean with type 'demo.Repos.Repo' found"));
+    }
+
+    String compile(Path src, Path out, Path... files) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String classpath = new File(Component.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        List<String> args = new ArrayList<>(List.of("-processor", GeneratedBeanFactoryProcessor.class.getName(),
+                "-processorpath", classpath, "-classpath", classpath, "-d", out.toString(), "-s", out.toString()));
+        for (Path file : files) {
+            args.add(file.toString());
+        }
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int result = compiler.run(null, null, err, args.toArray(String[]::new));
+        return result == 0 ? "" : err.toString();
+    }
+}
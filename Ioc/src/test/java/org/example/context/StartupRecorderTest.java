@@ -0,0 +1,51 @@
+package org.example.context;
+
+import junit.framework.TestCase;
+import org.example.annotation.Scope;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StartupRecorderTest extends TestCase {
+
+    static BeanDefinition def(String name) throws Exception {
+        return new BeanDefinition(name, Object.class, Object.class.getDeclaredConstructor(), 0, false, false, Scope.SINGLETON, 0, null, null, null, null);
+    }
+
+    public void testNoStateLeftOnWorkerThreads() throws Exception {
+        StartupRecorder recorder = new StartupRecorder();
+        BeanDefinition a = def("a");
+        BeanDefinition b = def("b");
+        BeanDefinition c = def("c");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                recorder.beginCreate(a);
+                try {
+                    recorder.beginCreate(b);
+                    try {
+                        throw new IllegalStateException("create b failed");
+                    } finally {
+                        recorder.endCreate(b);
+                    }
+                } catch (IllegalStateException e) {
+                    // 创建失败，继续创建其他bean
+                } finally {
+                    recorder.endCreate(a);
+                }
+            }).get();
+            // 之前失败的创建不影响同一个线程上之后的依赖链:
+            executor.submit(() -> {
+                recorder.beginCreate(c);
+                recorder.endCreate(c);
+            }).get();
+            assertTrue(recorder.creating.isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+        StartupReport report = recorder.finish();
+        assertEquals(List.of("a"), report.beans().get(1).chain());
+        assertEquals(List.of(), report.beans().get(2).chain());
+    }
+}
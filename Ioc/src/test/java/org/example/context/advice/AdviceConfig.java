@@ -0,0 +1,7 @@
+package org.example.context.advice;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class AdviceConfig {
+}
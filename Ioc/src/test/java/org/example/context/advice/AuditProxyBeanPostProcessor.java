@@ -0,0 +1,23 @@
+package org.example.context.advice;
+
+import org.example.AOP.AnnotationProxyBeanPostProcessor;
+import org.example.annotation.Around;
+import org.example.annotation.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 覆写postProcessBeforeInitialization()的子类，仍然作为BeanPostProcessor调用
+ */
+@Component
+public class AuditProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Around> {
+
+    public final List<String> processed = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        this.processed.add(beanName);
+        return super.postProcessBeforeInitialization(bean, beanName);
+    }
+}
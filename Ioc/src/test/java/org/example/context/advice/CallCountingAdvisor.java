@@ -0,0 +1,27 @@
+package org.example.context.advice;
+
+import org.example.AOP.Advisor;
+import org.example.AOP.MethodInterceptor;
+import org.example.annotation.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class CallCountingAdvisor implements Advisor {
+
+    public final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public MethodInterceptor getInterceptor(Method method, Class<?> targetClass) {
+        if (targetClass != PriceService.class) {
+            return null;
+        }
+        return new MethodInterceptor() {
+            @Override
+            public long before(Object target, Method method) {
+                return calls.incrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.context.advice;
+
+import org.example.annotation.Component;
+
+@Component
+public class PriceService {
+
+    public int price(String item) {
+        return item.length() * 10;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.context.aop;
+
+import org.example.AOP.AroundProxyBeanPostProcessor;
+import org.example.annotation.Bean;
+import org.example.annotation.Configuration;
+
+@Configuration
+public class AopConfig {
+
+    @Bean
+    public AroundProxyBeanPostProcessor createAroundProxyBeanPostProcessor() {
+        return new AroundProxyBeanPostProcessor();
+    }
+}
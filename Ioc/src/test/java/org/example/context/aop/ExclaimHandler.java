@@ -0,0 +1,15 @@
+package org.example.context.aop;
+
+import org.example.annotation.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+@Component
+public class ExclaimHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object bean, Method method, Object[] args) throws Throwable {
+        return method.invoke(bean, args) + "!";
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.context.aop;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class GreetingClient {
+
+    @Autowired
+    GreetingService greetingService;
+
+    public String greet(String name) {
+        return this.greetingService.hello(name);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.context.aop;
+
+import org.example.annotation.Around;
+import org.example.annotation.Component;
+import org.example.annotation.Value;
+
+@Component
+@Around("upperCaseHandler")
+public class GreetingService {
+
+    @Value("${greeting.prefix:Hello}")
+    String prefix;
+
+    public String hello(String name) {
+        return this.prefix + ", " + name;
+    }
+
+    @Around("exclaimHandler")
+    public String shout(String word) {
+        return word;
+    }
+}
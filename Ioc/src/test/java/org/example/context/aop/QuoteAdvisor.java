@@ -0,0 +1,21 @@
+package org.example.context.aop;
+
+import org.example.AOP.Advisor;
+import org.example.annotation.Component;
+import org.example.annotation.Order;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+@Order(1)
+@Component
+public class QuoteAdvisor implements Advisor {
+
+    @Override
+    public InvocationHandler getHandler(Method method, Class<?> targetClass) {
+        if (targetClass != GreetingService.class || !method.getName().equals("hello")) {
+            return null;
+        }
+        return (bean, m, args) -> "\"" + m.invoke(bean, args) + "\"";
+    }
+}
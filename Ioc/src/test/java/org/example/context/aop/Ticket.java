@@ -0,0 +1,19 @@
+package org.example.context.aop;
+
+import org.example.annotation.Around;
+import org.example.annotation.Component;
+import org.example.annotation.Scope;
+import org.example.annotation.Value;
+
+@Component
+@Scope(Scope.PROTOTYPE)
+@Around("upperCaseHandler")
+public class Ticket {
+
+    @Value("${greeting.prefix:Hello}")
+    String prefix;
+
+    public String label() {
+        return this.prefix + " ticket";
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.context.aop;
+
+import org.example.annotation.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class Trace {
+
+    public final List<String> events = new CopyOnWriteArrayList<>();
+}
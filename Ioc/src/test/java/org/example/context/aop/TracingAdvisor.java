@@ -0,0 +1,39 @@
+package org.example.context.aop;
+
+import org.example.AOP.Advisor;
+import org.example.AOP.MethodInterceptor;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+import org.example.annotation.Order;
+
+import java.lang.reflect.Method;
+
+@Order(1)
+@Component
+public class TracingAdvisor implements Advisor {
+
+    final Trace trace;
+
+    public TracingAdvisor(@Autowired Trace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public MethodInterceptor getInterceptor(Method method, Class<?> targetClass) {
+        if (targetClass != GreetingService.class || !method.getName().equals("shout")) {
+            return null;
+        }
+        return new MethodInterceptor() {
+            @Override
+            public long before(Object target, Method method) {
+                trace.events.add("tracing before");
+                return 0;
+            }
+
+            @Override
+            public void after(Object target, Method method, long context, Throwable error) {
+                trace.events.add("tracing after");
+            }
+        };
+    }
+}
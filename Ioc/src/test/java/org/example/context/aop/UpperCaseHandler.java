@@ -0,0 +1,16 @@
+package org.example.context.aop;
+
+import org.example.annotation.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+@Component
+public class UpperCaseHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object bean, Method method, Object[] args) throws Throwable {
+        Object ret = method.invoke(bean, args);
+        return ret instanceof String s ? s.toUpperCase() : ret;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.context.fixture;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Bean;
+import org.example.annotation.Configuration;
+import org.example.annotation.Value;
+
+@Configuration
+public class FixtureConfig {
+
+    @Bean
+    public Greeting greeting(@Value("${app.greeting:Hello}") String prefix, @Autowired UserRepository repository) {
+        return new Greeting(prefix, repository);
+    }
+
+    public static class Greeting {
+
+        final String prefix;
+        final UserRepository repository;
+
+        public Greeting(String prefix, UserRepository repository) {
+            this.prefix = prefix;
+            this.repository = repository;
+        }
+
+        public String greet(long id) {
+            return this.prefix + ", " + this.repository.findName(id);
+        }
+    }
+}
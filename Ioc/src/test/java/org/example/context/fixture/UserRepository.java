@@ -0,0 +1,27 @@
+package org.example.context.fixture;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Component;
+import org.example.annotation.Value;
+
+@Component
+public class UserRepository {
+
+    @Value("${app.user:Bob}")
+    String user;
+
+    boolean initialized = false;
+
+    @PostConstruct
+    void init() {
+        this.initialized = true;
+    }
+
+    public boolean isInitialized() {
+        return this.initialized;
+    }
+
+    public String findName(long id) {
+        return this.user + "#" + id;
+    }
+}
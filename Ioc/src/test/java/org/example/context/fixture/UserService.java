@@ -0,0 +1,37 @@
+package org.example.context.fixture;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class UserService {
+
+    final UserRepository repository;
+
+    @Autowired
+    FixtureConfig.Greeting greeting;
+
+    boolean repositoryInitializedFirst = false;
+
+    public UserService(@Autowired UserRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    void init() {
+        this.repositoryInitializedFirst = this.repository.isInitialized();
+    }
+
+    public UserRepository getRepository() {
+        return this.repository;
+    }
+
+    public FixtureConfig.Greeting getGreeting() {
+        return this.greeting;
+    }
+
+    public boolean isRepositoryInitializedFirst() {
+        return this.repositoryInitializedFirst;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.context.lazy;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+import org.example.annotation.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Lazy
+@Component
+public class AdminEndpoint {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Autowired
+    Reporter reporter;
+
+    public AdminEndpoint() {
+        CREATED.incrementAndGet();
+        try {
+            // 构造较慢，让并发获取的线程同时等待:
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Reporter getReporter() {
+        return this.reporter;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.context.lazy;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Component;
+import org.example.annotation.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Lazy
+@Component
+public class ExpensiveReporter implements Reporter {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    String state = "new";
+
+    public ExpensiveReporter() {
+        CREATED.incrementAndGet();
+    }
+
+    @PostConstruct
+    void init() {
+        this.state = "ready";
+    }
+
+    @Override
+    public String report() {
+        return "report: " + this.state;
+    }
+}
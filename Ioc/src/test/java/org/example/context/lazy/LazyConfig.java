@@ -0,0 +1,7 @@
+package org.example.context.lazy;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class LazyConfig {
+}
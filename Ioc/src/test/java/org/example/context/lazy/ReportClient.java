@@ -0,0 +1,15 @@
+package org.example.context.lazy;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class ReportClient {
+
+    @Autowired
+    Reporter reporter;
+
+    public Reporter getReporter() {
+        return this.reporter;
+    }
+}
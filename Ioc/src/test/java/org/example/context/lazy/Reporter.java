@@ -0,0 +1,6 @@
+package org.example.context.lazy;
+
+public interface Reporter {
+
+    String report();
+}
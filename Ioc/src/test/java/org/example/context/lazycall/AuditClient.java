@@ -0,0 +1,15 @@
+package org.example.context.lazycall;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class AuditClient {
+
+    @Autowired
+    AuditLog auditLog;
+
+    public AuditLog getAuditLog() {
+        return this.auditLog;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.context.lazycall;
+
+import org.example.annotation.Component;
+import org.example.annotation.Lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按具体类注入的延迟bean
+ */
+@Lazy
+@Component
+public class AuditLog {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    final List<String> entries = new ArrayList<>();
+
+    public AuditLog() {
+        CREATED.incrementAndGet();
+    }
+
+    public int record(String entry) {
+        this.entries.add(entry);
+        return this.entries.size();
+    }
+}
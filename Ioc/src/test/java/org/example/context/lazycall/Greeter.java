@@ -0,0 +1,6 @@
+package org.example.context.lazycall;
+
+public interface Greeter {
+
+    String greet(String name);
+}
@@ -0,0 +1,7 @@
+package org.example.context.lazycall;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class LazyCallConfig {
+}
@@ -0,0 +1,22 @@
+package org.example.context.lazycall;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Component;
+import org.example.annotation.Lazy;
+
+@Lazy
+@Component
+public class LazyGreeter implements Greeter {
+
+    String prefix;
+
+    @PostConstruct
+    void init() {
+        this.prefix = "Hello, ";
+    }
+
+    @Override
+    public String greet(String name) {
+        return this.prefix + name;
+    }
+}
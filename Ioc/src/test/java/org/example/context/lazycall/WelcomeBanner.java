@@ -0,0 +1,26 @@
+package org.example.context.lazycall;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+/**
+ * 非延迟bean，在init方法中调用注入的延迟bean代理
+ */
+@Component
+public class WelcomeBanner {
+
+    @Autowired
+    Greeter greeter;
+
+    String text;
+
+    @PostConstruct
+    void init() {
+        this.text = this.greeter.greet("summer");
+    }
+
+    public String getText() {
+        return this.text;
+    }
+}
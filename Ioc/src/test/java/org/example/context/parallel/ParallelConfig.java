@@ -0,0 +1,7 @@
+package org.example.context.parallel;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class ParallelConfig {
+}
@@ -0,0 +1,21 @@
+package org.example.context.parallel;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Component;
+
+@Component
+public class SlowBeanB {
+
+    boolean warmedUp = false;
+
+    @PostConstruct
+    void warmUp() throws Exception {
+        // 三个bean同时初始化才能通过:
+        Warmups.BARRIER.await(Warmups.TIMEOUT_SECONDS, java.util.concurrent.TimeUnit.SECONDS);
+        this.warmedUp = true;
+    }
+
+    public boolean isWarmedUp() {
+        return this.warmedUp;
+    }
+}
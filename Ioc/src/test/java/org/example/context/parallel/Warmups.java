@@ -0,0 +1,40 @@
+package org.example.context.parallel;
+
+import jakarta.annotation.PostConstruct;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * 依赖三个SlowBean，初始化时它们必须都已经初始化完成。
+ */
+@Component
+public class Warmups {
+
+    static final CyclicBarrier BARRIER = new CyclicBarrier(3);
+
+    static final long TIMEOUT_SECONDS = 10;
+
+    final SlowBeanA a;
+    final SlowBeanB b;
+
+    @Autowired
+    SlowBeanC c;
+
+    boolean allWarmedUp = false;
+
+    public Warmups(@Autowired SlowBeanA a, @Autowired SlowBeanB b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    @PostConstruct
+    void init() {
+        this.allWarmedUp = a.isWarmedUp() && b.isWarmedUp() && c.isWarmedUp();
+    }
+
+    public boolean isAllWarmedUp() {
+        return this.allWarmedUp;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.context.refresh;
+
+import org.example.annotation.Component;
+import org.example.annotation.ConfigurationProperties;
+import org.example.annotation.Refreshable;
+
+@Component
+@Refreshable
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    volatile int maxEntries = 1000;
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.context.refresh;
+
+import org.example.annotation.Component;
+import org.example.annotation.Refreshable;
+import org.example.annotation.Value;
+
+@Component
+@Refreshable
+public class PoolSettings {
+
+    @Value("${pool.size:8}")
+    volatile int size;
+
+    volatile String name;
+
+    @Value("${pool.name}")
+    void setName(String name) {
+        this.name = name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
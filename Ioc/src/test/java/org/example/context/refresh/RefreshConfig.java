@@ -0,0 +1,7 @@
+package org.example.context.refresh;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class RefreshConfig {
+}
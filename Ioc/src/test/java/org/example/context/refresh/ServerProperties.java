@@ -0,0 +1,11 @@
+package org.example.context.refresh;
+
+import org.example.annotation.Component;
+import org.example.annotation.ConfigurationProperties;
+
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "server")
+public record ServerProperties(String host, int port, List<String> aliases) {
+}
@@ -0,0 +1,21 @@
+package org.example.context.refresh;
+
+import org.example.annotation.Component;
+import org.example.annotation.Value;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class Timeouts {
+
+    final Supplier<Duration> timeout;
+
+    public Timeouts(@Value("${pool.timeout:PT1S}") Supplier<Duration> timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout.get();
+    }
+}
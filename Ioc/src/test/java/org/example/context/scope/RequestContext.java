@@ -0,0 +1,35 @@
+package org.example.context.scope;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Component;
+import org.example.annotation.Pooled;
+import org.example.annotation.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope(Scope.REQUEST)
+@Pooled(max = 1)
+public class RequestContext {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+    public static final AtomicInteger DESTROYED = new AtomicInteger();
+
+    // 计数放在init方法中，代理子类的构造方法不计入:
+    int id;
+
+    @PostConstruct
+    void init() {
+        this.id = CREATED.incrementAndGet();
+    }
+
+    @PreDestroy
+    void destroy() {
+        DESTROYED.incrementAndGet();
+    }
+
+    public int getId() {
+        return this.id;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.context.scope;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class ScopeClient {
+
+    @Autowired
+    Token token;
+
+    @Autowired
+    RequestContext requestContext;
+
+    public Token getToken() {
+        return this.token;
+    }
+
+    public RequestContext getRequestContext() {
+        return this.requestContext;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.context.scope;
+
+import org.example.annotation.Configuration;
+
+@Configuration
+public class ScopeConfig {
+}
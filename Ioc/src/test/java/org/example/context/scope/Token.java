@@ -0,0 +1,9 @@
+package org.example.context.scope;
+
+import org.example.annotation.Component;
+import org.example.annotation.Scope;
+
+@Component
+@Scope(Scope.PROTOTYPE)
+public class Token {
+}
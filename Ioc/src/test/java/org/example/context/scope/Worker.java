@@ -0,0 +1,23 @@
+package org.example.context.scope;
+
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Component;
+import org.example.annotation.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope(Scope.THREAD)
+public class Worker {
+
+    public static final AtomicInteger DESTROYED = new AtomicInteger();
+
+    public Thread getThread() {
+        return Thread.currentThread();
+    }
+
+    @PreDestroy
+    void destroy() {
+        DESTROYED.incrementAndGet();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.context.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Component;
+
+@Component
+public class ConnectionPool {
+
+    @PreDestroy
+    void close() {
+        ShutdownConfig.destroyed("pool");
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.context.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Component;
+
+@Component
+public class HangingWorker {
+
+    public static volatile long sleepMillis = 0;
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        Thread.sleep(sleepMillis);
+        ShutdownConfig.destroyed("worker");
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.context.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class OrderDao {
+
+    final ConnectionPool pool;
+
+    public OrderDao(@Autowired ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    @PreDestroy
+    void close() {
+        ShutdownConfig.destroyed("dao");
+    }
+}
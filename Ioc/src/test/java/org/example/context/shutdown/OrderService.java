@@ -0,0 +1,17 @@
+package org.example.context.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+
+@Component
+public class OrderService {
+
+    @Autowired
+    OrderDao dao;
+
+    @PreDestroy
+    void close() {
+        ShutdownConfig.destroyed("service");
+    }
+}
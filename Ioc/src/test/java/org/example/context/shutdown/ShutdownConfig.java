@@ -0,0 +1,22 @@
+package org.example.context.shutdown;
+
+import org.example.annotation.Configuration;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Configuration
+public class ShutdownConfig {
+
+    public static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+    // 执行destroy方法的线程:
+    public static final Set<String> THREADS = ConcurrentHashMap.newKeySet();
+
+    static void destroyed(String name) {
+        THREADS.add(Thread.currentThread().getName());
+        DESTROYED.add(name);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.index;
+
+import junit.framework.TestCase;
+import org.example.annotation.Component;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.io.PropertyResolver;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ComponentIndexTest extends TestCase {
+
+    public void testGetCandidateTypes() throws Exception {
+        String content = "# generated\norg.example.a.Foo\norg.example.a.b.Bar\n\norg.example.ab.Baz\n";
+        Set<String> candidates = new TreeSet<>();
+        ComponentIndex.readIndex(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), candidates);
+        ComponentIndex index = new ComponentIndex(candidates);
+
+        assertEquals(3, index.size());
+        assertEquals(Set.of("org.example.a.Foo", "org.example.a.b.Bar"), index.getCandidateTypes("org.example.a"));
+        assertEquals(Set.of("org.example.ab.Baz"), index.getCandidateTypes("org.example.ab"));
+        assertTrue(index.getCandidateTypes("org.other").isEmpty());
+    }
+
+    public void testProcessorWritesIndex() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path src = Files.createTempDirectory("summer-src");
+        Path out = Files.createTempDirectory("summer-out");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Service.java"),
+                "package demo; @org.example.annotation.Component public class Service { @org.example.annotation.Component public static class Inner {} }");
+        Files.writeString(pkg.resolve("Config.java"),
+                "package demo; @org.example.annotation.Configuration public class Config {}");
+        Files.writeString(pkg.resolve("Plain.java"),
+                "package demo; public class Plain {}");
+
+        String classpath = new File(Component.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        int result = compiler.run(null, null, null, "-proc:only",
+                "-processor", ComponentIndexProcessor.class.getName(),
+                "-processorpath", classpath, "-classpath", classpath, "-d", out.toString(),
+                pkg.resolve("Service.java").toString(), pkg.resolve("Config.java").toString(), pkg.resolve("Plain.java").toString());
+        assertEquals(0, result);
+
+        List<String> lines = Files.readAllLines(out.resolve(ComponentIndex.COMPONENTS_RESOURCE_LOCATION));
+        assertEquals(List.of("demo.Config", "demo.Service", "demo.Service$Inner"), lines);
+    }
+
+    public void testProcessorMergesExistingIndex() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path src = Files.createTempDirectory("summer-src");
+        Path out = Files.createTempDirectory("summer-out");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Service.java"), "package demo; @org.example.annotation.Component public class Service {}");
+        Files.writeString(pkg.resolve("Plain.java"), "package demo; public class Plain {}");
+        Files.writeString(pkg.resolve("Added.java"), "package demo; @org.example.annotation.Component public class Added {}");
+
+        String classpath = new File(Component.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        assertEquals(0, compiler.run(null, null, null, "-proc:none", "-classpath", classpath, "-d", out.toString(),
+                pkg.resolve("Service.java").toString()));
+        // 上次编译的索引：Plain原来是组件，Removed已经删除:
+        Path index = Files.createDirectories(out.resolve("META-INF")).resolve("summer.components");
+        Files.writeString(index, "demo.Plain\ndemo.Removed\ndemo.Service\n");
+
+        // 增量编译只处理Plain和Added:
+        int result = compiler.run(null, null, null, "-proc:only",
+                "-processor", ComponentIndexProcessor.class.getName(),
+                "-processorpath", classpath, "-classpath", classpath + File.pathSeparator + out, "-d", out.toString(),
+                pkg.resolve("Plain.java").toString(), pkg.resolve("Added.java").toString());
+        assertEquals(0, result);
+        assertEquals(List.of("demo.Added", "demo.Service"), Files.readAllLines(index));
+    }
+
+    public void testScanUnindexedRoots() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path src = Files.createTempDirectory("summer-src");
+        Path indexed = Files.createTempDirectory("summer-indexed");
+        Path unindexed = Files.createTempDirectory("summer-unindexed");
+        Path pkg = Files.createDirectories(src.resolve("demo"));
+        Files.writeString(pkg.resolve("Alpha.java"), "package demo; @org.example.annotation.Component public class Alpha {}");
+        Files.writeString(pkg.resolve("Hidden.java"), "package demo; @org.example.annotation.Component public class Hidden {}");
+        Files.writeString(pkg.resolve("Beta.java"), "package demo; @org.example.annotation.Component public class Beta {}");
+        Files.writeString(pkg.resolve("AppConfig.java"), "package demo; @org.example.annotation.Configuration public class AppConfig {}");
+
+        String classpath = new File(Component.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        assertEquals(0, compiler.run(null, null, null, "-proc:none", "-classpath", classpath, "-d", indexed.toString(),
+                pkg.resolve("Alpha.java").toString(), pkg.resolve("Hidden.java").toString()));
+        assertEquals(0, compiler.run(null, null, null, "-proc:none", "-classpath", classpath, "-d", unindexed.toString(),
+                pkg.resolve("Beta.java").toString(), pkg.resolve("AppConfig.java").toString()));
+        // 索引中没有Hidden，带有索引的目录不再遍历，所以不会找到Hidden:
+        Path index = Files.createDirectories(indexed.resolve("META-INF")).resolve("summer.components");
+        Files.writeString(index, "demo.Alpha\n");
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{indexed.toUri().toURL(), unindexed.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+            AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(
+                    classLoader.loadClass("demo.AppConfig"), new PropertyResolver(new Properties()));
+            Set<String> beanClasses = new TreeSet<>();
+            ctx.findBeanDefinitions(Object.class).forEach(def -> beanClasses.add(def.getBeanClass().getName()));
+            assertEquals(Set.of("demo.Alpha", "demo.AppConfig", "demo.Beta"), beanClasses);
+            ctx.close();
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.io;
+
+import junit.framework.TestCase;
+import org.example.annotation.Component;
+import org.example.annotation.ComponentScan;
+import org.example.annotation.Configuration;
+import org.example.annotation.Order;
+import org.example.web.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.List;
+
+public class ClassMetadataReaderTest extends TestCase {
+
+    static final String COMPONENT = Component.class.getName();
+
+    ClassMetadataReader reader = new ClassMetadataReader(getClass().getClassLoader());
+
+    public void testReadAnnotations() {
+        ClassMetadata metadata = reader.read(resourceName(ConfigBean.class));
+        assertEquals(ConfigBean.class.getName(), metadata.className());
+        assertEquals(List.of(Configuration.class.getName(), ComponentScan.class.getName(), Order.class.getName(), Deprecated.class.getName()),
+                metadata.annotationTypes());
+        assertFalse(metadata.isInterface());
+    }
+
+    public void testCandidates() {
+        assertTrue(reader.isCandidate(resourceName(PlainComponent.class), COMPONENT));
+        assertTrue(reader.isCandidate(resourceName(ConfigBean.class), COMPONENT));
+        assertTrue(reader.isCandidate(resourceName(RestBean.class), COMPONENT));
+        assertFalse(reader.isCandidate(resourceName(NotComponent.class), COMPONENT));
+        assertFalse(reader.isCandidate(resourceName(ComponentInterface.class), COMPONENT));
+        assertFalse(reader.isCandidate("org/example/NotExist.class", COMPONENT));
+    }
+
+    public void testCandidateFromScannedBytes() throws Exception {
+        // 扫描时直接解析读取到的内容，classloader找不到这个类也可以判断:
+        ClassMetadataReader platformReader = new ClassMetadataReader(ClassLoader.getPlatformClassLoader());
+        assertFalse(platformReader.isCandidate(resourceName(PlainComponent.class), COMPONENT));
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(resourceName(PlainComponent.class))) {
+            assertTrue(platformReader.isCandidate(input.readAllBytes(), COMPONENT));
+        }
+    }
+
+    public void testClassNotInitialized() {
+        assertFalse(reader.isCandidate(resourceName("FailOnInit"), COMPONENT));
+        assertFalse(FailOnInitProbe.initialized);
+    }
+
+    static String resourceName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    static String resourceName(String simpleName) {
+        return ClassMetadataReaderTest.class.getName().replace('.', '/') + "$" + simpleName + ".class";
+    }
+
+    @Component
+    public static class PlainComponent {
+    }
+
+    @Configuration
+    @ComponentScan({"org.example.a", "org.example.b"})
+    @Order(1)
+    @Deprecated(since = "1.0")
+    public static class ConfigBean {
+    }
+
+    @RestController("rest")
+    public static class RestBean {
+    }
+
+    public static class NotComponent {
+    }
+
+    @Component
+    public interface ComponentInterface {
+    }
+
+    static class FailOnInitProbe {
+        static boolean initialized = false;
+    }
+
+    static class FailOnInit {
+        static {
+            FailOnInitProbe.initialized = true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.io;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class PropertyResolverTest extends TestCase {
+
+    PropertyResolver resolver;
+
+    @Override
+    protected void setUp() {
+        Properties props = new Properties();
+        props.setProperty("db.host", "localhost");
+        props.setProperty("db.port", "5432");
+        props.setProperty("db.url", "jdbc:postgresql://${db.host}:${db.port}/${db.name:summer}");
+        props.setProperty("app.timeout", "PT30S");
+        props.setProperty("app.title", "${app.name:${db.host}}");
+        props.setProperty("loop.a", "${loop.b}");
+        props.setProperty("loop.b", "${loop.a}");
+        props.setProperty("broken", "x-${missing}");
+        this.resolver = new PropertyResolver(props);
+    }
+
+    public void testEmbeddedAndNestedPlaceholders() {
+        assertEquals("jdbc:postgresql://localhost:5432/summer", this.resolver.getProperty("db.url"));
+        assertEquals("localhost", this.resolver.getProperty("app.title"));
+        assertEquals("localhost:5432", this.resolver.getProperty("${db.host}:${db.port}"));
+        assertEquals("5432", this.resolver.getProperty("${db.missing:${db.absent:${db.port}}}"));
+        assertEquals("", this.resolver.getProperty("${db.missing:}"));
+        assertNull(this.resolver.getProperty("db.missing"));
+    }
+
+    public void testTypedValuesAreConvertedOnce() {
+        Integer port = this.resolver.getRequiredProperty("db.port", Integer.class);
+        assertEquals(5432, port.intValue());
+        assertSame(port, this.resolver.getProperty("db.port", Integer.class));
+        assertEquals(Duration.ofSeconds(30), this.resolver.getProperty("app.timeout", Duration.class));
+        assertEquals(8080, this.resolver.getProperty("${server.port:8080}", int.class).intValue());
+    }
+
+    public void testUnresolvablePropertiesFailOnRead() {
+        try {
+            this.resolver.getProperty("loop.a");
+            fail("circular reference");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("loop.a"));
+        }
+        try {
+            this.resolver.getProperty("broken");
+            fail("missing placeholder");
+        } catch (NullPointerException e) {
+            assertEquals("Property 'missing' is required", e.getMessage());
+        }
+    }
+
+    public void testWatchFile() throws Exception {
+        Path dir = Files.createTempDirectory("summer-config");
+        Path file = dir.resolve("application.properties");
+        Files.writeString(file, "pool.size=8\n");
+        Function<Path, Properties> loader = p -> {
+            Properties props = new Properties();
+            try (Reader reader = Files.newBufferedReader(p)) {
+                props.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return props;
+        };
+        PropertyResolver resolver = new PropertyResolver(loader.apply(file));
+        Supplier<Integer> size = resolver.getPropertySupplier("pool.size", Integer.class);
+        List<Set<String>> changes = new CopyOnWriteArrayList<>();
+        resolver.addChangeListener(changes::add);
+        try (PropertyFileWatcher watcher = resolver.watch(file, loader)) {
+            Files.writeString(file, "pool.size=64\n");
+            for (int i = 0; i < 100 && size.get() != 64; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(64, size.get().intValue());
+            assertEquals(List.of(Set.of("pool.size")), changes);
+
+            // 应用停止时由PropertyResolver关闭:
+            resolver.closeWatchers();
+            watcher.thread.join(1000);
+            assertFalse(watcher.thread.isAlive());
+        } finally {
+            Files.delete(file);
+            Files.delete(dir);
+        }
+    }
+
+    public enum Mode { FAST, SAFE_MODE }
+
+    public record Server(String host, int port) {
+    }
+
+    public record PoolProperties(int maxSize, boolean enabled, Duration timeout, Mode mode, List<Server> servers,
+                                 Set<String> tags, Map<String, Integer> weights) {
+    }
+
+    public static class Limits {
+        int connections = 10;
+        long[] windows;
+        Server fallback;
+
+        public void setConnections(int connections) {
+            this.connections = connections * 2;
+        }
+    }
+
+    public void testBindConfigurationProperties() {
+        Properties props = new Properties();
+        props.setProperty("pool.max-size", "16");
+        props.setProperty("pool.timeout", "PT2S");
+        props.setProperty("pool.mode", "safe-mode");
+        props.setProperty("pool.servers[1].host", "b.example.com");
+        props.setProperty("pool.servers[1].port", "${db.port:5432}");
+        props.setProperty("pool.servers[0].host", "a.example.com");
+        props.setProperty("pool.tags", "fast, internal");
+        props.setProperty("pool.weights.a", "3");
+        props.setProperty("pool.unknown", "ignored");
+        props.setProperty("limits.windows[0]", "1");
+        props.setProperty("limits.windows[1]", "60");
+        props.setProperty("limits.fallback.host", "c.example.com");
+        PropertyResolver resolver = new PropertyResolver(props);
+
+        PoolProperties pool = resolver.bind("pool", PoolProperties.class);
+        assertEquals(16, pool.maxSize());
+        assertFalse(pool.enabled());
+        assertEquals(Duration.ofSeconds(2), pool.timeout());
+        assertEquals(Mode.SAFE_MODE, pool.mode());
+        assertEquals(List.of(new Server("a.example.com", 0), new Server("b.example.com", 5432)), pool.servers());
+        assertEquals(Set.of("fast", "internal"), pool.tags());
+        assertEquals(Map.of("a", 3), pool.weights());
+
+        // 没有配置的属性保持默认值，有setter时通过setter赋值:
+        Limits limits = resolver.bind("limits", Limits.class);
+        assertEquals(10, limits.connections);
+        assertTrue(Arrays.equals(new long[] { 1, 60 }, limits.windows));
+        assertEquals("c.example.com", limits.fallback.host());
+        resolver.reload(withProperty(props, "limits.connections", "4"));
+        resolver.bindTo("limits", limits);
+        assertEquals(8, limits.connections);
+
+        try {
+            resolver.reload(withProperty(props, "pool.max-size", "many"));
+            resolver.bind("pool", PoolProperties.class);
+            fail("cannot convert");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("pool.max-size"));
+        }
+    }
+
+    static Properties withProperty(Properties props, String key, String value) {
+        Properties copy = new Properties();
+        copy.putAll(props);
+        copy.setProperty(key, value);
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.io;
+
+import junit.framework.TestCase;
+
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.util.List;
+import java.util.function.Function;
+
+public class ResourceResolverTest extends TestCase {
+
+    static final Function<Resource, String> CLASS_NAME_MAPPER = res -> {
+        String name = res.name().replace("\\", "/");
+        if (name.endsWith(".class")) {
+            return name.substring(0, name.length() - 6).replace("/", ".");
+        }
+        return null;
+    };
+
+    public void testParallelScanKeepsSequentialOrder() {
+        List<String> packages = List.of("org.example.io", "org.example.context", "org.example.annotation", "org.example.web");
+        List<String> sequential = packages.stream()
+                .flatMap(pkg -> new ResourceResolver(pkg).scan(CLASS_NAME_MAPPER).stream())
+                .toList();
+        assertTrue(sequential.contains(ResourceResolver.class.getName()));
+        assertTrue(sequential.contains(ResourceResolverTest.class.getName()));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(sequential, ResourceResolver.scan(packages, CLASS_NAME_MAPPER, 4));
+        }
+    }
+
+    public void testScanSamePackagesInOneJar() throws Exception {
+        List<String> packages = List.of("org.slf4j.helpers", "org.slf4j.event", "org.slf4j.spi");
+        URI jarUri = jarFileSystemUri();
+        try (ScanSession session = new ScanSession()) {
+            for (String pkg : packages) {
+                List<String> classes = new ResourceResolver(pkg, session).scan(CLASS_NAME_MAPPER);
+                assertFalse(classes.isEmpty());
+                assertTrue(classes.stream().allMatch(c -> c.startsWith(pkg + ".")));
+            }
+            assertEquals(1, session.openFileSystemCount());
+        }
+        assertJarClosed(jarUri);
+
+        // 不指定session也可以反复扫描同一个jar:
+        for (String pkg : packages) {
+            assertFalse(new ResourceResolver(pkg).scan(CLASS_NAME_MAPPER).isEmpty());
+            assertFalse(new ResourceResolver(pkg).scan(CLASS_NAME_MAPPER).isEmpty());
+        }
+        assertJarClosed(jarUri);
+    }
+
+    public void testParallelScanInOneJar() throws Exception {
+        List<String> packages = List.of("org.slf4j.helpers", "org.slf4j.event", "org.slf4j.spi");
+        List<String> sequential = packages.stream()
+                .flatMap(pkg -> new ResourceResolver(pkg).scan(CLASS_NAME_MAPPER).stream())
+                .toList();
+        assertEquals(sequential, ResourceResolver.scan(packages, CLASS_NAME_MAPPER, 3));
+        assertJarClosed(jarFileSystemUri());
+    }
+
+    static URI jarFileSystemUri() throws Exception {
+        String s = ResourceResolverTest.class.getClassLoader().getResource("org/slf4j/helpers").toURI().toString();
+        assertTrue(s.startsWith("jar:"));
+        return URI.create(s.substring(0, s.indexOf("!/")));
+    }
+
+    static void assertJarClosed(URI jarUri) {
+        try {
+            FileSystems.getFileSystem(jarUri);
+            fail("jar file system should be closed: " + jarUri);
+        } catch (FileSystemNotFoundException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.metrics;
+
+import junit.framework.TestCase;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.io.PropertyResolver;
+import org.example.metrics.fixture.MetricsConfig;
+import org.example.metrics.fixture.OrderService;
+
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.Set;
+
+public class MetricsRegistryTest extends TestCase {
+
+    public void testHistogramPercentiles() {
+        // 相邻的桶首尾相接:
+        for (int i = 1; i < Histogram.BUCKET_COUNT; i++) {
+            assertEquals(Histogram.highestValueOf(i - 1) + 1, Histogram.lowestValueOf(i));
+            assertEquals(i, Histogram.indexOf(Histogram.lowestValueOf(i)));
+        }
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(100_002, histogram.getCount());
+        for (double p : new double[] { 10, 50, 90, 99 }) {
+            double expected = p / 100 * 100_002;
+            double error = Math.abs(histogram.getValueAtPercentile(p) - expected) / expected;
+            assertTrue("p" + p + " error " + error, error < 1.0 / Histogram.SUB_BUCKET_COUNT);
+        }
+        assertEquals(Histogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    public void testTimedAndCounted() {
+        var ctx = new AnnotationConfigApplicationContext(MetricsConfig.class, new PropertyResolver(new Properties()));
+        OrderService orders = ctx.getBean(OrderService.class);
+        // @Timed和@Counted合并到同一个代理:
+        assertSame(OrderService.class, orders.getClass().getSuperclass());
+        assertEquals(5, orders.place(5));
+        try {
+            orders.place(-1);
+            fail("amount must be positive");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        assertEquals(5, orders.getTotal());
+
+        MetricsRegistry registry = ctx.getBean(MetricsRegistry.class);
+        assertEquals(Set.of("orders.place", "orders.total"), registry.getTimers().keySet());
+        Timer place = registry.getTimers().get("orders.place");
+        assertEquals(2, place.getCount());
+        assertEquals(1, place.getErrorCount());
+        assertTrue(place.getMaxNanos() > 0 && place.getPercentileNanos(100) >= place.getMaxNanos());
+        Counter counter = registry.getCounters().get("OrderService.place");
+        assertEquals(2, counter.getCount());
+        assertEquals(1, counter.getErrorCount());
+        assertTrue(registry.toJson().contains("\"orders.total\""));
+
+        // 记录指标不分配内存:
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 10_000; i++) {
+            orders.place(1);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            orders.place(1);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue("allocated " + allocated + " bytes", allocated < 100_000);
+        ctx.close();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.metrics.fixture;
+
+import org.example.annotation.Bean;
+import org.example.annotation.Configuration;
+import org.example.metrics.CountedProxyBeanPostProcessor;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.TimedProxyBeanPostProcessor;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    @Bean
+    public TimedProxyBeanPostProcessor timedProxyBeanPostProcessor() {
+        return new TimedProxyBeanPostProcessor();
+    }
+
+    @Bean
+    public CountedProxyBeanPostProcessor countedProxyBeanPostProcessor() {
+        return new CountedProxyBeanPostProcessor();
+    }
+}
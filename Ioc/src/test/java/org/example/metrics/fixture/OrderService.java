@@ -0,0 +1,25 @@
+package org.example.metrics.fixture;
+
+import org.example.annotation.Component;
+import org.example.annotation.Counted;
+import org.example.annotation.Timed;
+
+@Component
+@Timed("orders")
+public class OrderService {
+
+    long total;
+
+    @Counted
+    public long place(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        return this.total += amount;
+    }
+
+    @Timed("orders.total")
+    public long getTotal() {
+        return this.total;
+    }
+}
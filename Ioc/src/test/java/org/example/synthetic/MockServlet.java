@@ -0,0 +1,93 @@
+package org.example.synthetic;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用JDK动态代理实现的最小请求和响应，足够DispatcherServlet路由一个GET请求
+ */
+public final class MockServlet {
+
+    private MockServlet() {
+    }
+
+    public static ServletConfig config() {
+        return (ServletConfig) Proxy.newProxyInstance(MockServlet.class.getClassLoader(), new Class<?>[] { ServletConfig.class },
+                (proxy, m, args) -> switch (m.getName()) {
+                    case "getServletName" -> "dispatcherServlet";
+                    case "getInitParameterNames" -> Collections.emptyEnumeration();
+                    default -> defaultValue(m.getReturnType());
+                });
+    }
+
+    public static HttpServletRequest request(String method, String uri) {
+        return (HttpServletRequest) Proxy.newProxyInstance(MockServlet.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                (proxy, m, args) -> switch (m.getName()) {
+                    case "getMethod" -> method;
+                    case "getRequestURI" -> uri;
+                    case "getProtocol" -> "HTTP/1.1";
+                    case "getDateHeader", "getIntHeader" -> -1L;
+                    default -> defaultValue(m.getReturnType());
+                });
+    }
+
+    /**
+     * 写入的内容全部丢弃
+     */
+    public static HttpServletResponse response() {
+        return response(Writer.nullWriter(), new AtomicInteger());
+    }
+
+    /**
+     * 写入的内容保存到body，setStatus和sendError设置的状态码保存到status
+     */
+    public static HttpServletResponse response(Writer body, AtomicInteger status) {
+        PrintWriter writer = new PrintWriter(body, true);
+        ServletOutputStream output = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(MockServlet.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, m, args) -> switch (m.getName()) {
+                    case "getWriter" -> writer;
+                    case "getOutputStream" -> output;
+                    case "setStatus", "sendError" -> {
+                        status.set((Integer) args[0]);
+                        yield null;
+                    }
+                    default -> defaultValue(m.getReturnType());
+                });
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
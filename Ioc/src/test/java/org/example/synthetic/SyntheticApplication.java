@@ -0,0 +1,149 @@
+package org.example.synthetic;
+
+import jakarta.servlet.ServletException;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.context.ApplicationContext;
+import org.example.index.ComponentIndex;
+import org.example.io.PropertyResolver;
+import org.example.web.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@link SyntheticApplicationGenerator}生成的应用，类只存在于内存中的{@link SyntheticClassLoader}，
+ * 需要从磁盘扫描时可以用{@link #writeTo(Path, boolean)}写到目录中。
+ *
+ * 容器通过组件索引找到这些类，因此不能配置summer.index.ignore=true。
+ */
+public class SyntheticApplication {
+
+    final SyntheticClassLoader classLoader;
+
+    final String configClassName;
+
+    final Properties properties;
+
+    final int beanCount;
+
+    final List<String> routes;
+
+    SyntheticApplication(SyntheticClassLoader classLoader, String configClassName, Properties properties, int beanCount, List<String> routes) {
+        this.classLoader = classLoader;
+        this.configClassName = configClassName;
+        this.properties = properties;
+        this.beanCount = beanCount;
+        this.routes = List.copyOf(routes);
+    }
+
+    /**
+     * 用生成的类和@Value需要的属性创建容器，extraProperties可以覆盖生成的属性
+     * @param extraProperties
+     * @return
+     */
+    public AnnotationConfigApplicationContext createContext(String... extraProperties) {
+        return createContext(this.classLoader, extraProperties);
+    }
+
+    /**
+     * 用指定classloader中的类创建容器，例如加载{@link #writeTo(Path, boolean)}写出的目录的URLClassLoader
+     * @param classLoader
+     * @param extraProperties
+     * @return
+     */
+    public AnnotationConfigApplicationContext createContext(ClassLoader classLoader, String... extraProperties) {
+        Properties props = new Properties();
+        props.putAll(this.properties);
+        for (int i = 0; i < extraProperties.length; i += 2) {
+            props.setProperty(extraProperties[i], extraProperties[i + 1]);
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return new AnnotationConfigApplicationContext(Class.forName(this.configClassName, false, classLoader), new PropertyResolver(props));
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * 把生成的类写到目录中，index为true时同时写入META-INF/summer.components，
+     * 没有索引的目录由容器遍历扫描
+     * @param dir
+     * @param index
+     * @throws IOException
+     */
+    public void writeTo(Path dir, boolean index) throws IOException {
+        for (Map.Entry<String, byte[]> entry : this.classLoader.classes.entrySet()) {
+            Path file = dir.resolve(entry.getKey().replace('.', '/') + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue());
+        }
+        if (index) {
+            Path file = dir.resolve(ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+            Files.createDirectories(file.getParent());
+            Files.write(file, this.classLoader.index);
+        }
+    }
+
+    /**
+     * 创建并初始化DispatcherServlet，注册所有生成的控制器
+     * @param applicationContext
+     * @return
+     * @throws ServletException
+     */
+    public DispatcherServlet createDispatcherServlet(ApplicationContext applicationContext) throws ServletException {
+        DispatcherServlet servlet = new DispatcherServlet(applicationContext, null);
+        servlet.init(MockServlet.config());
+        return servlet;
+    }
+
+    public Class<?> getConfigClass() {
+        return loadClass(this.configClassName);
+    }
+
+    /**
+     * 按简单类名加载生成的类，如Component0、Config1、Product1_0、Controller2
+     * @param simpleName
+     * @return
+     */
+    public Class<?> loadClass(String simpleName) {
+        String packageName = this.configClassName.substring(0, this.configClassName.lastIndexOf('.') + 1);
+        try {
+            return Class.forName(simpleName.contains(".") ? simpleName : packageName + simpleName, false, this.classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public SyntheticClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+
+    public Properties getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * 容器中应有的bean数量：根配置类、组件、配置类及其@Bean产品和控制器
+     * @return
+     */
+    public int getBeanCount() {
+        return this.beanCount;
+    }
+
+    /**
+     * 每个处理方法一个可以直接请求的GET路径
+     * @return
+     */
+    public List<String> getRoutes() {
+        return this.routes;
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.synthetic;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.example.annotation.Autowired;
+import org.example.annotation.Bean;
+import org.example.annotation.Component;
+import org.example.annotation.Configuration;
+import org.example.annotation.Value;
+import org.example.web.annotation.GetMapping;
+import org.example.web.annotation.PathVariable;
+import org.example.web.annotation.ResponseBody;
+import org.example.web.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 在内存中生成一个合成应用，用于在接近生产规模下测试和测量容器：
+ *
+ * <pre>
+ * SyntheticApplication app = new SyntheticApplicationGenerator()
+ *         .components(5000).depth(20).fanOut(3)
+ *         .configurations(10, 5)
+ *         .values(2)
+ *         .controllers(10, 20)
+ *         .generate();
+ * </pre>
+ *
+ * 组件ComponentN按编号均匀分成depth层，第L层的组件依赖第L-1层中fanOut个组件：第一个通过构造方法注入到public字段dep0，
+ * 其余通过@Autowired字段dep1、dep2...注入。每个组件有values个@Value字段，奇数编号的使用默认值。
+ *
+ * 配置类ConfigJ有若干@Bean方法productJ_K，返回ProductJ_K，参数依赖上一个配置类的同名产品，形成深度为configurations的依赖链；
+ * 控制器ControllerJ注入一个组件，并有若干GET处理方法，路径为/cJ/rK/{id}。
+ */
+public class SyntheticApplicationGenerator {
+
+    String basePackage = "synthetic.app";
+
+    int components = 100;
+
+    int depth = 4;
+
+    int fanOut = 2;
+
+    int configurations = 0;
+
+    int beansPerConfiguration = 0;
+
+    int values = 0;
+
+    int controllers = 0;
+
+    int handlersPerController = 0;
+
+    final ByteBuddy byteBuddy = new ByteBuddy();
+
+    public SyntheticApplicationGenerator basePackage(String basePackage) {
+        this.basePackage = basePackage;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator components(int components) {
+        this.components = components;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator depth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1.");
+        }
+        this.depth = depth;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator fanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator configurations(int configurations, int beansPerConfiguration) {
+        this.configurations = configurations;
+        this.beansPerConfiguration = beansPerConfiguration;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator values(int values) {
+        this.values = values;
+        return this;
+    }
+
+    public SyntheticApplicationGenerator controllers(int controllers, int handlersPerController) {
+        this.controllers = controllers;
+        this.handlersPerController = handlersPerController;
+        return this;
+    }
+
+    public SyntheticApplication generate() {
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        List<String> index = new ArrayList<>();
+        Properties props = new Properties();
+        List<String> routes = new ArrayList<>();
+
+        String configName = this.basePackage + ".SyntheticConfig";
+        save(this.byteBuddy.subclass(Object.class).name(configName).annotateType(annotation(Configuration.class)).make(), classes);
+        index.add(configName);
+
+        TypeDescription[] componentTypes = generateComponents(classes, index, props);
+        int beans = this.components + generateConfigurations(componentTypes, classes, index)
+                + generateControllers(componentTypes, classes, index, routes);
+
+        ClassLoader parent = SyntheticApplicationGenerator.class.getClassLoader();
+        return new SyntheticApplication(new SyntheticClassLoader(parent, classes, index), configName, props, beans + 1, routes);
+    }
+
+    TypeDescription[] generateComponents(Map<String, byte[]> classes, List<String> index, Properties props) {
+        // 按编号分层，layers.get(L)是第L层的组件编号:
+        List<List<Integer>> layers = new ArrayList<>();
+        for (int i = 0; i < this.depth; i++) {
+            layers.add(new ArrayList<>());
+        }
+        TypeDescription[] types = new TypeDescription[this.components];
+        for (int i = 0; i < this.components; i++) {
+            int layer = (int) ((long) i * this.depth / this.components);
+            layers.get(layer).add(i);
+            List<Integer> upstream = layer == 0 ? List.of() : layers.get(layer - 1);
+            List<TypeDescription> deps = new ArrayList<>();
+            for (int k = 0; k < Math.min(this.fanOut, upstream.size()); k++) {
+                deps.add(types[upstream.get((i + k) % upstream.size())]);
+            }
+
+            String name = this.basePackage + ".Component" + i;
+            DynamicType.Builder<Object> builder = this.byteBuddy.subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                    .name(name)
+                    .annotateType(annotation(Component.class));
+            for (int k = 0; k < deps.size(); k++) {
+                var field = builder.defineField("dep" + k, deps.get(k), Visibility.PUBLIC);
+                builder = k == 0 ? field : field.annotateField(annotation(Autowired.class));
+            }
+            for (int k = 0; k < this.values; k++) {
+                String key = "synthetic.component" + i + ".value" + k;
+                String expr;
+                if (k % 2 == 0) {
+                    props.setProperty(key, "v" + i + "_" + k);
+                    expr = "${" + key + "}";
+                } else {
+                    expr = "${" + key + ":default" + k + "}";
+                }
+                builder = builder.defineField("value" + k, String.class, Visibility.PUBLIC)
+                        .annotateField(AnnotationDescription.Builder.ofType(Value.class).define("value", expr).build());
+            }
+            MethodCall superCall = MethodCall.invoke(objectConstructor());
+            if (deps.isEmpty()) {
+                builder = builder.defineConstructor(Visibility.PUBLIC).intercept(superCall);
+            } else {
+                builder = builder.defineConstructor(Visibility.PUBLIC)
+                        .withParameter(deps.get(0)).annotateParameter(annotation(Autowired.class))
+                        .intercept(superCall.andThen(FieldAccessor.ofField("dep0").setsArgumentAt(0)));
+            }
+            DynamicType.Unloaded<Object> type = builder.make();
+            types[i] = type.getTypeDescription();
+            save(type, classes);
+            index.add(name);
+        }
+        return types;
+    }
+
+    int generateConfigurations(TypeDescription[] componentTypes, Map<String, byte[]> classes, List<String> index) {
+        TypeDescription[] previous = null;
+        for (int j = 0; j < this.configurations; j++) {
+            TypeDescription[] products = new TypeDescription[this.beansPerConfiguration];
+            String name = this.basePackage + ".Config" + j;
+            DynamicType.Builder<Object> config = this.byteBuddy.subclass(Object.class).name(name)
+                    .annotateType(annotation(Configuration.class));
+            for (int k = 0; k < this.beansPerConfiguration; k++) {
+                // 第一个配置类的产品依赖组件，之后的依赖上一个配置类的产品:
+                TypeDescription upstream = previous != null ? previous[k]
+                        : componentTypes.length > 0 ? componentTypes[k % componentTypes.length] : null;
+                DynamicType.Unloaded<Object> product = generateProduct(this.basePackage + ".Product" + j + "_" + k, upstream);
+                save(product, classes);
+                products[k] = product.getTypeDescription();
+
+                MethodDescription.InDefinedShape constructor = products[k].getDeclaredMethods()
+                        .filter(ElementMatchers.isConstructor()).getOnly();
+                var method = config.defineMethod("product" + j + "_" + k, products[k], Visibility.PUBLIC);
+                config = (upstream == null
+                        ? method.intercept(MethodCall.construct(constructor))
+                        : method.withParameter(upstream).annotateParameter(annotation(Autowired.class))
+                                .intercept(MethodCall.construct(constructor).withArgument(0)))
+                        .annotateMethod(annotation(Bean.class));
+            }
+            save(config.make(), classes);
+            index.add(name);
+            previous = products;
+        }
+        return this.configurations * (1 + this.beansPerConfiguration);
+    }
+
+    DynamicType.Unloaded<Object> generateProduct(String name, TypeDescription upstream) {
+        DynamicType.Builder<Object> builder = this.byteBuddy.subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS).name(name);
+        MethodCall superCall = MethodCall.invoke(objectConstructor());
+        if (upstream == null) {
+            return builder.defineConstructor(Visibility.PUBLIC).intercept(superCall).make();
+        }
+        return builder.defineField("upstream", upstream, Visibility.PUBLIC)
+                .defineConstructor(Visibility.PUBLIC).withParameter(upstream)
+                .intercept(superCall.andThen(FieldAccessor.ofField("upstream").setsArgumentAt(0)))
+                .make();
+    }
+
+    int generateControllers(TypeDescription[] componentTypes, Map<String, byte[]> classes, List<String> index, List<String> routes) {
+        for (int j = 0; j < this.controllers; j++) {
+            String name = this.basePackage + ".Controller" + j;
+            DynamicType.Builder<Object> controller = this.byteBuddy.subclass(Object.class).name(name)
+                    .annotateType(annotation(RestController.class));
+            if (componentTypes.length > 0) {
+                controller = controller.defineField("service", componentTypes[j % componentTypes.length], Visibility.PUBLIC)
+                        .annotateField(annotation(Autowired.class));
+            }
+            for (int k = 0; k < this.handlersPerController; k++) {
+                String path = "/c" + j + "/r" + k;
+                controller = controller.defineMethod("handle" + k, String.class, Visibility.PUBLIC)
+                        .withParameter(String.class)
+                        .annotateParameter(AnnotationDescription.Builder.ofType(PathVariable.class).define("value", "id").build())
+                        .intercept(FixedValue.value("ok"))
+                        .annotateMethod(AnnotationDescription.Builder.ofType(GetMapping.class).define("value", path + "/(?<id>[^/]+)").build(),
+                                annotation(ResponseBody.class));
+                routes.add(path + "/1");
+            }
+            save(controller.make(), classes);
+            index.add(name);
+        }
+        return this.controllers;
+    }
+
+    static AnnotationDescription annotation(Class<? extends java.lang.annotation.Annotation> type) {
+        return AnnotationDescription.Builder.ofType(type).build();
+    }
+
+    static MethodDescription.ForLoadedConstructor objectConstructor() {
+        try {
+            return new MethodDescription.ForLoadedConstructor(Object.class.getConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void save(DynamicType.Unloaded<?> type, Map<String, byte[]> classes) {
+        type.getAllTypes().forEach((description, bytes) -> classes.put(description.getName(), bytes));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.synthetic;
+
+import jakarta.servlet.http.HttpServletResponse;
+import junit.framework.TestCase;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.web.DispatcherServlet;
+
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SyntheticApplicationTest extends TestCase {
+
+    public void testLargeApplication() throws Exception {
+        SyntheticApplication app = new SyntheticApplicationGenerator()
+                .components(2000).depth(10).fanOut(3)
+                .configurations(5, 4)
+                .values(2)
+                .controllers(4, 25)
+                .generate();
+        AnnotationConfigApplicationContext ctx = app.createContext();
+        assertEquals(app.getBeanCount(), ctx.findBeanDefinitions(Object.class).size());
+
+        Object last = ctx.getBean(app.loadClass("Component1999"));
+        for (int k = 0; k < 3; k++) {
+            Object dep = last.getClass().getField("dep" + k).get(last);
+            assertSame(ctx.getBean(dep.getClass()), dep);
+        }
+        assertEquals("v1999_0", last.getClass().getField("value0").get(last));
+        assertEquals("default1", last.getClass().getField("value1").get(last));
+
+        // @Bean产品沿配置类依赖到组件:
+        Object product = ctx.getBean("product4_1");
+        for (int j = 3; j >= 0; j--) {
+            product = product.getClass().getField("upstream").get(product);
+            assertSame(ctx.getBean("product" + j + "_1"), product);
+        }
+        assertSame(ctx.getBean("component1"), product.getClass().getField("upstream").get(product));
+
+        DispatcherServlet servlet = app.createDispatcherServlet(ctx);
+        assertEquals(100, app.getRoutes().size());
+        StringWriter body = new StringWriter();
+        AtomicInteger status = new AtomicInteger();
+        servlet.service(MockServlet.request("GET", app.getRoutes().get(99)), MockServlet.response(body, status));
+        assertEquals("ok", body.toString());
+        servlet.service(MockServlet.request("GET", "/c9/r0/1"), MockServlet.response(body, status));
+        assertEquals(HttpServletResponse.SC_NOT_FOUND, status.get());
+        ctx.close();
+    }
+
+    public void testDeepDependencyChain() throws Exception {
+        SyntheticApplication app = new SyntheticApplicationGenerator().components(500).depth(500).fanOut(1).generate();
+        AnnotationConfigApplicationContext ctx = app.createContext();
+        Object bean = ctx.getBean(app.loadClass("Component499"));
+        int depth = 1;
+        while (bean.getClass().getFields().length > 0) {
+            bean = bean.getClass().getField("dep0").get(bean);
+            depth++;
+        }
+        assertEquals(500, depth);
+        ctx.close();
+    }
+}
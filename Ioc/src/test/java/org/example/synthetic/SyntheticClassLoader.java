@@ -0,0 +1,95 @@
+package org.example.synthetic;
+
+import org.example.index.ComponentIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从内存中加载生成的类，并以META-INF/summer.components提供组件索引，容器通过索引找到这些类，不需要扫描磁盘
+ */
+public class SyntheticClassLoader extends ClassLoader {
+
+    static final String PROTOCOL = "synthetic";
+
+    final Map<String, byte[]> classes;
+
+    final byte[] index;
+
+    final URLStreamHandler handler = new URLStreamHandler() {
+        @Override
+        protected URLConnection openConnection(URL url) throws IOException {
+            byte[] bytes = getResourceBytes(url.getPath().substring(1));
+            if (bytes == null) {
+                throw new IOException("Resource not found: " + url);
+            }
+            return new URLConnection(url) {
+                @Override
+                public void connect() {
+                }
+
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteArrayInputStream(bytes);
+                }
+            };
+        }
+    };
+
+    SyntheticClassLoader(ClassLoader parent, Map<String, byte[]> classes, List<String> components) {
+        super("synthetic", parent);
+        this.classes = classes;
+        this.index = String.join("\n", components).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = this.classes.get(name);
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    @Override
+    protected URL findResource(String name) {
+        if (getResourceBytes(name) == null) {
+            return null;
+        }
+        try {
+            return new URL(PROTOCOL, null, -1, "/" + name, this.handler);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) {
+        URL url = findResource(name);
+        return url == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(url));
+    }
+
+    byte[] getResourceBytes(String name) {
+        if (ComponentIndex.COMPONENTS_RESOURCE_LOCATION.equals(name)) {
+            return this.index;
+        }
+        if (name.endsWith(".class")) {
+            return this.classes.get(name.substring(0, name.length() - 6).replace('/', '.'));
+        }
+        return null;
+    }
+
+    public int getClassCount() {
+        return this.classes.size();
+    }
+}
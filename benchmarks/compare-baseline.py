@@ -0,0 +1,62 @@
+#!/usr/bin/env python3
+"""
+比较两次JMH运行的结果（-rf json），任何一个基准变慢超过阈值时返回非0:
+
+    java -jar benchmarks/target/benchmarks.jar -rf json -rff baseline.json
+    java -jar benchmarks/target/benchmarks.jar -rf json -rff current.json
+    python3 benchmarks/compare-baseline.py baseline.json current.json --threshold 10
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding='utf-8') as f:
+        results = {}
+        for r in json.load(f):
+            params = r.get('params') or {}
+            key = r['benchmark'] + ''.join('[%s=%s]' % (k, params[k]) for k in sorted(params))
+            metric = r['primaryMetric']
+            results[key] = (r['mode'], metric['score'], metric['scoreUnit'])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Compare JMH results against a baseline.')
+    parser.add_argument('baseline')
+    parser.add_argument('current')
+    parser.add_argument('--threshold', type=float, default=10.0, help='max allowed regression in percent (default 10)')
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = []
+    for key in sorted(current):
+        mode, score, unit = current[key]
+        if key not in baseline:
+            print('%-90s %14.3f %-8s (new)' % (key, score, unit))
+            continue
+        base_mode, base_score, base_unit = baseline[key]
+        if base_unit != unit or base_score == 0:
+            print('%-90s %14.3f %-8s (not comparable)' % (key, score, unit))
+            continue
+        change = (score - base_score) / base_score * 100
+        # thrpt越大越好，其他模式（avgt、sample、ss）越小越好:
+        regression = -change if mode == 'thrpt' else change
+        flag = ''
+        if regression > args.threshold:
+            regressions.append(key)
+            flag = '  REGRESSION'
+        print('%-90s %14.3f %-8s %+8.1f%%%s' % (key, score, unit, change, flag))
+    for key in sorted(set(baseline) - set(current)):
+        print('%-90s (missing)' % key)
+
+    if regressions:
+        print('\n%d benchmark(s) regressed more than %.1f%%' % (len(regressions), args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == '__main__':
+    sys.exit(main())
@@ -0,0 +1,87 @@
+package org.example.benchmarks;
+
+import org.example.benchmarks.creation.CreationConfig;
+import org.example.benchmarks.creation.Dependency;
+import org.example.benchmarks.creation.Product;
+import org.example.benchmarks.creation.Target;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过getBean()创建原型bean（构造方法加字段注入、@Bean工厂方法），
+ * 和直接调用、反射调用构造方法、工厂方法和字段完成同样工作的耗时对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCreationBenchmark {
+
+    AnnotationConfigApplicationContext ctx;
+
+    CreationConfig config;
+
+    Dependency dependency;
+
+    Object[] args;
+
+    Constructor<Target> constructor;
+
+    Method factoryMethod;
+
+    Field field;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.ctx = new AnnotationConfigApplicationContext(CreationConfig.class, new PropertyResolver(new Properties()));
+        this.config = this.ctx.getBean(CreationConfig.class);
+        this.dependency = this.ctx.getBean(Dependency.class);
+        this.args = new Object[]{"bean", this.dependency};
+        this.constructor = Target.class.getConstructor(String.class, Dependency.class);
+        this.factoryMethod = CreationConfig.class.getMethod("product", String.class, Dependency.class);
+        this.field = Target.class.getField("injected");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.ctx.close();
+    }
+
+    @Benchmark
+    public Object constructorDirect() {
+        Target target = new Target((String) this.args[0], (Dependency) this.args[1]);
+        target.injected = this.dependency;
+        return target;
+    }
+
+    @Benchmark
+    public Object constructorReflective() throws Exception {
+        Target target = this.constructor.newInstance(this.args);
+        this.field.set(target, this.dependency);
+        return target;
+    }
+
+    @Benchmark
+    public Object constructorGetBean() {
+        return this.ctx.getBean(Target.class);
+    }
+
+    @Benchmark
+    public Object factoryMethodReflective() throws Exception {
+        return this.factoryMethod.invoke(this.config, this.args);
+    }
+
+    @Benchmark
+    public Object factoryMethodGetBean() {
+        return this.ctx.getBean(Product.class);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.benchmarks;
+
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.context.BeanDefinition;
+import org.example.synthetic.SyntheticApplication;
+import org.example.synthetic.SyntheticApplicationGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 对比5000个bean时遍历所有BeanDefinition查找和容器按类型索引查找（findBeanDefinitions）的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanLookupBenchmark {
+
+    @Param({"5000"})
+    int beanCount;
+
+    AnnotationConfigApplicationContext ctx;
+
+    List<BeanDefinition> defs;
+
+    Class<?>[] lookupTypes;
+
+    int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticApplication app = new SyntheticApplicationGenerator().components(this.beanCount).depth(10).fanOut(3).generate();
+        this.ctx = app.createContext();
+        this.defs = this.ctx.findBeanDefinitions(Object.class);
+        // 查找配置类和不同位置的组件:
+        this.lookupTypes = new Class<?>[]{app.getConfigClass(), app.loadClass("Component0"), app.loadClass("Component" + (this.beanCount / 2)),
+                app.loadClass("Component" + (this.beanCount - 1))};
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.ctx.close();
+    }
+
+    Class<?> nextType() {
+        Class<?> type = lookupTypes[next];
+        next = (next + 1) % lookupTypes.length;
+        return type;
+    }
+
+    @Benchmark
+    public List<BeanDefinition> linearScan() {
+        Class<?> type = nextType();
+        return this.defs.stream().filter(def -> type.isAssignableFrom(def.getBeanClass())).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BeanDefinition> typeIndex() {
+        return this.ctx.findBeanDefinitions(nextType());
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.synthetic.SyntheticApplication;
+import org.example.synthetic.SyntheticApplicationGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 把合成应用的类写到磁盘目录，比较目录带有META-INF/summer.components时读取索引和没有索引时遍历扫描的启动耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentScanBenchmark {
+
+    @Param({ "100", "1000" })
+    int beans;
+
+    @Param({ "true", "false" })
+    boolean indexed;
+
+    SyntheticApplication app;
+
+    Path dir;
+
+    URLClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.app = new SyntheticApplicationGenerator()
+                .components(this.beans).depth(10).fanOut(3)
+                .generate();
+        this.dir = Files.createTempDirectory("summer-scan");
+        this.app.writeTo(this.dir, this.indexed);
+        // 父classloader中没有生成的类，只能从目录加载:
+        this.classLoader = new URLClassLoader(new URL[]{this.dir.toUri().toURL()}, ComponentScanBenchmark.class.getClassLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.classLoader.close();
+        try (Stream<Path> files = Files.walk(this.dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public AnnotationConfigApplicationContext startup() {
+        AnnotationConfigApplicationContext ctx = this.app.createContext(this.classLoader);
+        ctx.close();
+        return ctx;
+    }
+}
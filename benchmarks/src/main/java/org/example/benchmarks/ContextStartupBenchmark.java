@@ -0,0 +1,41 @@
+package org.example.benchmarks;
+
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.synthetic.SyntheticApplication;
+import org.example.synthetic.SyntheticApplicationGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成N个组件（10层、每个依赖3个）、带@Bean配置类和@Value的应用，测量从读取索引到创建完所有bean的完整启动耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextStartupBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    int beans;
+
+    SyntheticApplication app;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.app = new SyntheticApplicationGenerator()
+                .components(this.beans).depth(10).fanOut(3)
+                .configurations(10, 5)
+                .values(2)
+                .generate();
+    }
+
+    @Benchmark
+    public AnnotationConfigApplicationContext startup() {
+        AnnotationConfigApplicationContext ctx = this.app.createContext();
+        ctx.close();
+        return ctx;
+    }
+}
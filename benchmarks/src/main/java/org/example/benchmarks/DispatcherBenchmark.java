@@ -0,0 +1,67 @@
+package org.example.benchmarks;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.synthetic.MockServlet;
+import org.example.synthetic.SyntheticApplication;
+import org.example.synthetic.SyntheticApplicationGenerator;
+import org.example.web.DispatcherServlet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N个处理方法时DispatcherServlet路由一个GET请求的耗时，分别命中中间和最后一个注册的路由
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatcherBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int handlers;
+
+    AnnotationConfigApplicationContext ctx;
+
+    DispatcherServlet servlet;
+
+    HttpServletRequest middle;
+
+    HttpServletRequest last;
+
+    HttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SyntheticApplication app = new SyntheticApplicationGenerator().components(1).controllers(1, this.handlers).generate();
+        this.ctx = app.createContext();
+        this.servlet = app.createDispatcherServlet(this.ctx);
+        List<String> routes = app.getRoutes();
+        this.middle = MockServlet.request("GET", routes.get(routes.size() / 2));
+        this.last = MockServlet.request("GET", routes.get(routes.size() - 1));
+        this.response = MockServlet.response();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.servlet.destroy();
+        this.ctx.close();
+    }
+
+    @Benchmark
+    public HttpServletResponse middleRoute() throws Exception {
+        this.servlet.service(this.middle, this.response);
+        return this.response;
+    }
+
+    @Benchmark
+    public HttpServletResponse lastRoute() throws Exception {
+        this.servlet.service(this.last, this.response);
+        return this.response;
+    }
+}
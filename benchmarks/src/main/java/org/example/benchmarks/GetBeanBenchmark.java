@@ -0,0 +1,52 @@
+package org.example.benchmarks;
+
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.synthetic.SyntheticApplication;
+import org.example.synthetic.SyntheticApplicationGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在启动好的容器中按类型和按名称查找bean
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetBeanBenchmark {
+
+    @Param({ "1000" })
+    int beans;
+
+    AnnotationConfigApplicationContext ctx;
+
+    Class<?> type;
+
+    String name;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticApplication app = new SyntheticApplicationGenerator().components(this.beans).depth(10).fanOut(3).generate();
+        this.ctx = app.createContext();
+        this.type = app.loadClass("Component" + (this.beans - 1));
+        this.name = "component" + (this.beans - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.ctx.close();
+    }
+
+    @Benchmark
+    public Object getBeanByType() {
+        return this.ctx.getBean(this.type);
+    }
+
+    @Benchmark
+    public Object getBeanByName() {
+        return this.ctx.getBean(this.name);
+    }
+}
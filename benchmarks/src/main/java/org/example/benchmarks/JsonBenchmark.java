@@ -0,0 +1,42 @@
+package org.example.benchmarks;
+
+import org.example.web.utils.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用共享的ObjectMapper序列化和解析一个小的响应体
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    public record Order(long id, String customer, List<String> items, double total) {
+    }
+
+    Order order;
+
+    String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.order = new Order(42L, "Alice", List.of("coffee", "tea", "cake"), 18.5);
+        this.json = JsonUtils.writeJson(this.order);
+    }
+
+    @Benchmark
+    public String writeJson() {
+        return JsonUtils.writeJson(this.order);
+    }
+
+    @Benchmark
+    public Order readJson() {
+        return JsonUtils.readJson(this.json, Order.class);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.benchmarks;
+
+import org.example.context.AnnotationConfigApplicationContext;
+import org.example.context.ApplicationContext;
+import org.example.context.fixture.FixtureConfig;
+import org.example.io.PropertyResolver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 分别在summer.context.lazy-init开启和关闭时启动容器，输出平均启动时间和容器占用的堆内存:
+ *
+ * java -cp benchmarks/target/benchmarks.jar org.example.benchmarks.LazyInitBenchmark org.example.context.fixture.FixtureConfig
+ */
+public class LazyInitBenchmark {
+
+    static final int ITERATIONS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Class<?> configClass = args.length > 0 ? Class.forName(args[0]) : FixtureConfig.class;
+        // 预热:
+        run(configClass, "false");
+        run(configClass, "true");
+        report(configClass, "false");
+        report(configClass, "true");
+    }
+
+    static void report(Class<?> configClass, String lazyInit) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long start = System.nanoTime();
+        List<ApplicationContext> contexts = run(configClass, lazyInit);
+        long elapsed = System.nanoTime() - start;
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("lazy-init=%s: startup %.3f ms, heap %d KB per context%n",
+                lazyInit, elapsed / 1e6 / ITERATIONS, (heapAfter - heapBefore) / 1024 / ITERATIONS);
+        // 保持引用直到统计完成:
+        contexts.clear();
+    }
+
+    static List<ApplicationContext> run(Class<?> configClass, String lazyInit) {
+        List<ApplicationContext> contexts = new ArrayList<>();
+        Properties props = new Properties();
+        props.setProperty("summer.context.lazy-init", lazyInit);
+        for (int i = 0; i < ITERATIONS; i++) {
+            contexts.add(new AnnotationConfigApplicationContext(configClass, new PropertyResolver(props)));
+        }
+        return contexts;
+    }
+}
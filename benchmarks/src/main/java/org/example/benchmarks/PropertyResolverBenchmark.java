@@ -0,0 +1,50 @@
+package org.example.benchmarks;
+
+import org.example.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 依次测量普通key、${key}引用、多层嵌套默认值和类型转换的属性查找
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyResolverBenchmark {
+
+    PropertyResolver resolver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Properties props = new Properties();
+        props.setProperty("app.name", "summer");
+        props.setProperty("app.port", "8080");
+        props.setProperty("app.title", "${app.name}");
+        this.resolver = new PropertyResolver(props);
+    }
+
+    @Benchmark
+    public String plainKey() {
+        return this.resolver.getProperty("app.name");
+    }
+
+    @Benchmark
+    public String placeholder() {
+        return this.resolver.getProperty("${app.title}");
+    }
+
+    @Benchmark
+    public String nestedDefault() {
+        return this.resolver.getProperty("${app.missing:${app.absent:${app.name}}}");
+    }
+
+    @Benchmark
+    public Integer typed() {
+        return this.resolver.getProperty("app.port", Integer.class);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.benchmarks;
+
+import org.example.AOP.Advisor;
+import org.example.AOP.AdvisorRegistry;
+import org.example.AOP.MethodInterceptor;
+import org.example.AOP.ProxyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建代理的耗时，以及只转发调用的InvocationHandler相对直接调用的开销；
+ * 同样在调用前后计数时，InvocationHandler和直接调用方式的MethodInterceptor的开销，
+ * 以及三个Advisor合并到同一个代理时的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBenchmark {
+
+    public static class Target {
+
+        int counter;
+
+        public int next(int step) {
+            return this.counter += step;
+        }
+
+        public int peek() {
+            return this.counter;
+        }
+    }
+
+    static final InvocationHandler PASS_THROUGH = (bean, method, args) -> method.invoke(bean, args);
+
+    // 调用前后各计数一次:
+    static long calls;
+
+    static final InvocationHandler COUNTING_HANDLER = (bean, method, args) -> {
+        calls++;
+        try {
+            return method.invoke(bean, args);
+        } finally {
+            calls++;
+        }
+    };
+
+    static final MethodInterceptor COUNTING_INTERCEPTOR = new MethodInterceptor() {
+        @Override
+        public long before(Object target, Method method) {
+            calls++;
+            return 0;
+        }
+
+        @Override
+        public void after(Object target, Method method, long context, Throwable error) {
+            calls++;
+        }
+    };
+
+    ProxyResolver resolver;
+
+    Target target;
+
+    Target proxy;
+
+    Target countingProxy;
+
+    // 只拦截next()的直接调用代理:
+    Target directProxy;
+
+    // 三个Advisor都拦截next()，合并为一个代理:
+    Target stackedProxy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.resolver = new ProxyResolver();
+        this.target = new Target();
+        this.proxy = this.resolver.createProxy(new Target(), PASS_THROUGH);
+        this.countingProxy = this.resolver.createProxy(new Target(), COUNTING_HANDLER);
+        this.directProxy = this.resolver.createProxy(new Target(), m -> m.getName().equals("next") ? COUNTING_INTERCEPTOR : null);
+        Advisor advisor = new Advisor() {
+            @Override
+            public MethodInterceptor getInterceptor(Method method, Class<?> targetClass) {
+                return method.getName().equals("next") ? COUNTING_INTERCEPTOR : null;
+            }
+        };
+        this.stackedProxy = (Target) new AdvisorRegistry(List.of(advisor, advisor, advisor)).createProxy(new Target());
+    }
+
+    @Benchmark
+    public Object createProxy() {
+        return this.resolver.createProxy(this.target, PASS_THROUGH);
+    }
+
+    @Benchmark
+    public int directCall() {
+        return this.target.next(1);
+    }
+
+    @Benchmark
+    public int proxiedCall() {
+        return this.proxy.next(1);
+    }
+
+    @Benchmark
+    public int handlerAdvisedCall() {
+        return this.countingProxy.next(1);
+    }
+
+    @Benchmark
+    public int directAdvisedCall() {
+        return this.directProxy.next(1);
+    }
+
+    @Benchmark
+    public int directUnadvisedCall() {
+        return this.directProxy.peek();
+    }
+
+    @Benchmark
+    public int stackedAdvisedCall() {
+        return this.stackedProxy.next(1);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.benchmarks.creation;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Bean;
+import org.example.annotation.Configuration;
+import org.example.annotation.Scope;
+import org.example.annotation.Value;
+
+@Configuration
+public class CreationConfig {
+
+    @Bean
+    @Scope(Scope.PROTOTYPE)
+    public Product product(@Value("${bench.name:bean}") String name, @Autowired Dependency dependency) {
+        return new Product(name, dependency);
+    }
+}
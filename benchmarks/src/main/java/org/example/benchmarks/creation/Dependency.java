@@ -0,0 +1,7 @@
+package org.example.benchmarks.creation;
+
+import org.example.annotation.Component;
+
+@Component
+public class Dependency {
+}
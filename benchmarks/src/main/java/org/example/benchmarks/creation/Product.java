@@ -0,0 +1,16 @@
+package org.example.benchmarks.creation;
+
+/**
+ * 由@Bean工厂方法创建的原型bean
+ */
+public class Product {
+
+    final String name;
+
+    final Dependency dependency;
+
+    public Product(String name, Dependency dependency) {
+        this.name = name;
+        this.dependency = dependency;
+    }
+}
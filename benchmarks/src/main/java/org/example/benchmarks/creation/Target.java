@@ -0,0 +1,26 @@
+package org.example.benchmarks.creation;
+
+import org.example.annotation.Autowired;
+import org.example.annotation.Component;
+import org.example.annotation.Scope;
+import org.example.annotation.Value;
+
+/**
+ * 用构造方法创建、再注入字段的原型bean
+ */
+@Component
+@Scope(Scope.PROTOTYPE)
+public class Target {
+
+    final String name;
+
+    final Dependency dependency;
+
+    @Autowired
+    public Dependency injected;
+
+    public Target(@Value("${bench.name:bean}") String name, @Autowired Dependency dependency) {
+        this.name = name;
+        this.dependency = dependency;
+    }
+}